@@ -0,0 +1,89 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.export.AccountExportService;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.ExportFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full export of {@code users} x 3 accounts (10M rows by default) into a stream that only
+ * counts bytes, so the numbers cover the cursor, row mapping and serialization. Run with a
+ * small heap, e.g. {@code -Djmh.args="AccountExport -jvmArgs -Xmx256m"}, to confirm memory
+ * stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class AccountExportBenchmark {
+
+    @Param({"3333334"})
+    public int users;
+
+    @Param({"NDJSON", "CSV"})
+    public ExportFormat format;
+
+    @Param({"5000"})
+    public int fetchSize;
+
+    private ConfigurableApplicationContext context;
+    private AccountExportService exportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("account.export.fetch-size", fetchSize));
+        BenchmarkContext.seedGenerated(context, users, new BigDecimal("1000.0000"));
+        exportService = context.getBean(AccountExportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long exportAll() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        long rows = exportService.export(format, null, out);
+        if (rows < (long) users * Currency.values().length) {
+            throw new IllegalStateException("Exported only " + rows + " rows");
+        }
+        return out.bytes;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.domain.repository.AccountRepository;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update and read latency on {@code users} x 3 accounts, once on the plain heap table and once
+ * after changelogs 011 and 012 have hash-partitioned it on {@code user_id}. Each parameter
+ * combination runs in its own fork and therefore its own container; with
+ * {@code -Dbenchmark.jdbc.url} point each run at a fresh database, since the partitioning
+ * cannot be undone by the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(16)
+public class AccountPartitioningBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"heap", "partitioned"})
+    public String layout;
+
+    @Param({"16"})
+    public int partitions;
+
+    @Param({"ATOMIC", "LOCKING"})
+    public String strategy;
+
+    @Param({"3333334"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("account.balance-update.strategy", strategy);
+        if (layout.equals("partitioned")) {
+            properties.put("spring.liquibase.parameters.account-partitioning", "enabled");
+            properties.put("spring.liquibase.parameters.account-partition-count", partitions);
+        }
+        context = BenchmarkContext.start(properties);
+        BenchmarkContext.seedGenerated(context, users, new BigDecimal("1000000"));
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponse updateBalance() {
+        return accountService.updateBalance(randomUser(), Currency.USD, AMOUNT);
+    }
+
+    @Benchmark
+    public List<BalanceResponse> readBalances() {
+        return accountRepository.findBalancesByUserId(randomUser());
+    }
+
+    private long randomUser() {
+        return BenchmarkContext.FIRST_USER_ID + ThreadLocalRandom.current().nextInt(users);
+    }
+}
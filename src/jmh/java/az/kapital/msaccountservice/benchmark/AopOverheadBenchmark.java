@@ -0,0 +1,122 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.aop.AccountServiceAop;
+import az.kapital.msaccountservice.aop.AccountServiceMetricsConfig;
+import az.kapital.msaccountservice.cache.BalanceCache;
+import az.kapital.msaccountservice.cache.InMemoryBalanceCacheInvalidationChannel;
+import az.kapital.msaccountservice.client.AuthServiceClient;
+import az.kapital.msaccountservice.config.BalanceCacheProperties;
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
+import az.kapital.msaccountservice.config.JwtVerificationProperties;
+import az.kapital.msaccountservice.config.TokenCacheProperties;
+import az.kapital.msaccountservice.config.UserIdCacheProperties;
+import az.kapital.msaccountservice.domain.entity.UserEntity;
+import az.kapital.msaccountservice.domain.repository.AccountRepository;
+import az.kapital.msaccountservice.domain.repository.UserRepository;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.service.AccountService;
+import az.kapital.msaccountservice.service.TokenValidationService;
+import az.kapital.msaccountservice.service.UserIdResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the advice around {@code AccountService}: no proxy, the metrics interceptor, and the
+ * legacy logging aspect. Collaborators are in-memory stubs so the advice dominates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AopOverheadBenchmark {
+
+    private static final String HEADER = "Bearer bench-user";
+
+    private AccountService direct;
+    private AccountService withMetrics;
+    private AccountService withLogging;
+
+    @Setup
+    public void setUp() {
+        UserEntity user = new UserEntity(1L, "bench-user", null);
+        List<BalanceResponse> balances = List.of(new BalanceResponse(Currency.USD, BigDecimal.TEN));
+        AccountRepository accountRepository = stub(AccountRepository.class, "findBalancesByUserId", balances);
+        UserRepository userRepository = stub(UserRepository.class, "findByUsername", Optional.of(user));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthServiceClient authServiceClient = request -> request.getToken();
+
+        direct = new AccountService(
+                accountRepository,
+                new UserIdResolver(userRepository, new UserIdCacheProperties(), meterRegistry),
+                new TokenValidationService(authServiceClient, new TokenCacheProperties(),
+                        new JwtVerificationProperties(), null, meterRegistry),
+                new BalanceUpdateProperties(),
+                null,
+                new BalanceCache(new BalanceCacheProperties(), new InMemoryBalanceCacheInvalidationChannel(),
+                        meterRegistry),
+                null,
+                meterRegistry);
+
+        ProxyFactory metricsFactory = new ProxyFactory(direct);
+        metricsFactory.setProxyTargetClass(true);
+        metricsFactory.addAdvisor(new AccountServiceMetricsConfig().accountServiceMetricsAdvisor(meterRegistry));
+        withMetrics = (AccountService) metricsFactory.getProxy();
+
+        AspectJProxyFactory loggingFactory = new AspectJProxyFactory(direct);
+        loggingFactory.setProxyTargetClass(true);
+        loggingFactory.addAspect(AccountServiceAop.class);
+        withLogging = loggingFactory.getProxy();
+    }
+
+    @Benchmark
+    public Object direct() {
+        return direct.getBalanceForUser(1L, HEADER);
+    }
+
+    @Benchmark
+    public Object metricsInterceptor() {
+        return withMetrics.getBalanceForUser(1L, HEADER);
+    }
+
+    @Benchmark
+    public Object loggingAspect() {
+        return withLogging.getBalanceForUser(1L, HEADER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String methodName, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName)) {
+                return result;
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package az.kapital.msaccountservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for ms-auth-service. {@code POST /api/auth/validate} sleeps for the
+ * configured latency and answers with the token itself as the username, or with
+ * {@code failureStatus} for the configured fraction of calls to reproduce a degraded service.
+ * <p>
+ * Runs standalone against a local instance after {@code mvn -Pbenchmark test-compile}:
+ * {@code java -cp target/test-classes az.kapital.msaccountservice.benchmark.AuthServiceStub
+ * [port] [latencyMillis] [failureRate] [failureStatus]}, with {@code client.ms-auth-service.url}
+ * pointed at it.
+ */
+public final class AuthServiceStub implements AutoCloseable {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]*)\"");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile long latencyMillis;
+    private volatile double failureRate;
+    private volatile int failureStatus = 503;
+
+    private AuthServiceStub(int port, long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/auth/validate", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                Matcher matcher = TOKEN.matcher(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                sleep(this.latencyMillis);
+                if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                    exchange.sendResponseHeaders(failureStatus, -1);
+                    return;
+                }
+                if (!matcher.find()) {
+                    exchange.sendResponseHeaders(401, -1);
+                    return;
+                }
+                byte[] response = matcher.group(1).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        this.server.start();
+    }
+
+    public static AuthServiceStub start(long latencyMillis) throws IOException {
+        return new AuthServiceStub(0, latencyMillis);
+    }
+
+    public static void main(String[] args) throws IOException {
+        AuthServiceStub stub = new AuthServiceStub(args.length > 0 ? Integer.parseInt(args[0]) : 8081,
+                args.length > 1 ? Long.parseLong(args[1]) : 0);
+        if (args.length > 2) {
+            stub.setFailureRate(Double.parseDouble(args[2]));
+        }
+        if (args.length > 3) {
+            stub.setFailureStatus(Integer.parseInt(args[3]));
+        }
+        System.out.println("ms-auth-service stub listening on " + stub.url());
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Fraction of calls, between 0 and 1, answered with {@link #setFailureStatus failureStatus}
+     * after the latency has elapsed.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public void setFailureStatus(int failureStatus) {
+        this.failureStatus = failureStatus;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getBalanceForUser} with ms-auth-service stubbed out, so the numbers cover token
+ * handling, the requester check and the balance query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+public class BalanceReadBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"true", "false"})
+    public boolean caches;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private String[] headers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "client.ms-auth-service.token-cache.enabled", caches,
+                "account.user-id-cache.enabled", caches));
+        BenchmarkContext.seed(context, users, new BigDecimal("1000"));
+        accountService = context.getBean(AccountService.class);
+        headers = new String[users];
+        for (int i = 0; i < users; i++) {
+            headers[i] = "Bearer " + BenchmarkContext.username(BenchmarkContext.FIRST_USER_ID + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getBalanceForUser() {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        return accountService.getBalanceForUser(BenchmarkContext.FIRST_USER_ID + i, headers[i]);
+    }
+}
@@ -0,0 +1,66 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code updateBalance} throughput with all threads on one account ({@code accounts=1}) and
+ * spread over many, for each update strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+public class BalanceUpdateBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"ATOMIC", "LOCKING"})
+    public String strategy;
+
+    @Param({"1", "1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("account.balance-update.strategy", strategy));
+        BenchmarkContext.seed(context, accounts, new BigDecimal("1000000"));
+        accountService = context.getBean(AccountService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponse updateBalance() {
+        long userId = BenchmarkContext.FIRST_USER_ID + ThreadLocalRandom.current().nextInt(accounts);
+        return accountService.updateBalance(userId, Currency.USD, AMOUNT);
+    }
+}
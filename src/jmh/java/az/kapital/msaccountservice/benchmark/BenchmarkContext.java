@@ -0,0 +1,142 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.MsAccountServiceApplication;
+import az.kapital.msaccountservice.client.AuthServiceClient;
+import az.kapital.msaccountservice.model.Currency;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Boots the service without the web layer against {@code -Dbenchmark.jdbc.url} or, when that
+ * is not set, a throwaway Postgres container. ms-auth-service is replaced by a stub that
+ * accepts any token and returns it as the username.
+ */
+public final class BenchmarkContext {
+
+    public static final long FIRST_USER_ID = 1_000_000L;
+
+    private static PostgreSQLContainer<?> container;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(Map<String, Object> properties) {
+        return new SpringApplicationBuilder(MsAccountServiceApplication.class, StubAuthConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(withDefaults(properties))
+                .run();
+    }
+
+    /**
+     * Starts the full web server on a random port with the real Feign client, which must be
+     * pointed at an {@link AuthServiceStub} through {@code client.ms-auth-service.url}.
+     */
+    public static ConfigurableApplicationContext startWeb(Map<String, Object> properties) {
+        Map<String, Object> webProperties = new HashMap<>(withDefaults(properties));
+        webProperties.putIfAbsent("server.port", 0);
+        return new SpringApplicationBuilder(MsAccountServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(webProperties)
+                .run();
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static Map<String, Object> withDefaults(Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>(datasourceProperties());
+        defaults.put("spring.jpa.show-sql", false);
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "WARN");
+        defaults.putAll(properties);
+        return defaults;
+    }
+
+    public static String username(long userId) {
+        return "bench-user-" + userId;
+    }
+
+    /**
+     * Replaces previously seeded benchmark users with {@code users} fresh ones, each holding
+     * one account per currency.
+     */
+    public static void seed(ConfigurableApplicationContext context, int users, BigDecimal balance) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM account WHERE user_id >= ?", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM account_user WHERE id >= ?", FIRST_USER_ID);
+
+        List<Object[]> userRows = new ArrayList<>(users);
+        List<Object[]> accountRows = new ArrayList<>(users * Currency.values().length);
+        for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + users; userId++) {
+            userRows.add(new Object[]{userId, username(userId)});
+            for (Currency currency : Currency.values()) {
+                accountRows.add(new Object[]{userId, currency.name(), balance});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_user (id, username) VALUES (?, ?)", userRows);
+        jdbcTemplate.batchUpdate("INSERT INTO account (user_id, currency, balance) VALUES (?, ?, ?)", accountRows);
+    }
+
+    /**
+     * Like {@link #seed}, but generates the rows inside Postgres with {@code generate_series};
+     * used for datasets in the millions, where client-side batches would dominate setup time.
+     */
+    public static void seedGenerated(ConfigurableApplicationContext context, int users, BigDecimal balance) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM account WHERE user_id >= ?", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM account_user WHERE id >= ?", FIRST_USER_ID);
+        long lastUserId = FIRST_USER_ID + users - 1;
+        jdbcTemplate.update("INSERT INTO account_user (id, username) "
+                + "SELECT g, 'bench-user-' || g FROM generate_series(?::bigint, ?::bigint) g",
+                FIRST_USER_ID, lastUserId);
+        jdbcTemplate.update("INSERT INTO account (user_id, currency, balance) "
+                + "SELECT g, c, ? FROM generate_series(?::bigint, ?::bigint) g, unnest(string_to_array(?, ',')) c",
+                balance, FIRST_USER_ID, lastUserId,
+                Arrays.stream(Currency.values()).map(Enum::name).collect(Collectors.joining(",")));
+        jdbcTemplate.execute("ANALYZE account");
+    }
+
+    private static synchronized Map<String, Object> datasourceProperties() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        if (url != null) {
+            return Map.of(
+                    "spring.datasource.url", url,
+                    "spring.datasource.username", System.getProperty("benchmark.jdbc.username", "account"),
+                    "spring.datasource.password", System.getProperty("benchmark.jdbc.password", "1234"));
+        }
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(container::stop));
+        }
+        return Map.of(
+                "spring.datasource.url", container.getJdbcUrl(),
+                "spring.datasource.username", container.getUsername(),
+                "spring.datasource.password", container.getPassword());
+    }
+
+    @Configuration
+    static class StubAuthConfiguration {
+
+        @Bean
+        @Primary
+        AuthServiceClient stubAuthServiceClient() {
+            return request -> request.getToken();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.domain.entity.AccountEntity;
+import az.kapital.msaccountservice.domain.entity.UserEntity;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AccountResponse accountResponse;
+    private List<AccountEntity> accountEntities;
+    private List<BalanceResponse> balances;
+
+    @Setup
+    public void setUp() {
+        UserEntity user = new UserEntity(1L, "bench-user@example.com", null);
+        accountEntities = new ArrayList<>();
+        balances = new ArrayList<>();
+        long id = 1;
+        for (Currency currency : Currency.values()) {
+            accountEntities.add(new AccountEntity(id++, user, currency, Money.parse("1234.5600")));
+            balances.add(new BalanceResponse(currency, new BigDecimal("1234.5600")));
+        }
+        accountResponse = new AccountResponse(1L, 1L, Currency.USD, new BigDecimal("1234.5600"));
+    }
+
+    @Benchmark
+    public byte[] accountResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accountResponse);
+    }
+
+    @Benchmark
+    public byte[] accountEntityList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accountEntities);
+    }
+
+    @Benchmark
+    public byte[] balanceResponseList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(balances);
+    }
+}
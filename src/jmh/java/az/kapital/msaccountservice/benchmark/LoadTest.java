@@ -0,0 +1,278 @@
+package az.kapital.msaccountservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the service on a random port against Postgres, with
+ * ms-auth-service replaced by an in-process {@link AuthServiceStub}, and drives a mix of
+ * {@code GET /{userId}/balance} and {@code POST /internal/update-balance} over HTTP. A
+ * {@code hotTraffic} share of requests goes to the first {@code hotUsers} share of users, to
+ * reproduce contention on popular accounts. Throughput, latency percentiles and status counts
+ * per operation are written as JSON to {@code output}.
+ * <p>
+ * With {@code rate > 0} requests are issued on a fixed schedule and latency is measured from
+ * the scheduled start, so a stalled service shows up in the percentiles instead of just
+ * slowing the clients down; {@code rate=0} runs closed-loop as fast as the clients can go.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="duration=120 rate=2000"},
+ * with {@code -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5442/account_db} to use the
+ * docker-compose Postgres instead of a throwaway container. Any other {@code key=value} whose
+ * key contains a dot is passed to the service as a property, e.g.
+ * {@code account.balance-update.strategy=LOCKING}.
+ */
+public final class LoadTest {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+
+    private final Map<String, String> options;
+    private final Map<String, Object> serviceProperties = new LinkedHashMap<>();
+    private final int users;
+    private final int concurrency;
+    private final double readRatio;
+    private final double hotUsers;
+    private final double hotTraffic;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private final Operation read = new Operation("getBalance");
+    private final Operation update = new Operation("updateBalance");
+
+    private HttpClient httpClient;
+    private String baseUrl;
+    private volatile boolean running = true;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.users = Integer.parseInt(option("users", "10000"));
+        this.concurrency = Integer.parseInt(option("concurrency", "64"));
+        this.readRatio = Double.parseDouble(option("readRatio", "0.8"));
+        this.hotUsers = Double.parseDouble(option("hotUsers", "0.01"));
+        this.hotTraffic = Double.parseDouble(option("hotTraffic", "0.5"));
+        this.rate = Double.parseDouble(option("rate", "0"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(option("warmup", "15")));
+        this.duration = Duration.ofSeconds(Long.parseLong(option("duration", "60")));
+        option("authLatencyMillis", "5");
+        option("authFailureRate", "0");
+        option("output", "target/loadtest/result.json");
+        options.forEach((key, value) -> {
+            if (key.contains(".")) {
+                serviceProperties.put(key, value);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        Path output = new LoadTest(options).run();
+        System.out.println("Load test results written to " + output.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private Path run() throws Exception {
+        try (AuthServiceStub authServiceStub = AuthServiceStub.start(Long.parseLong(option("authLatencyMillis", "")))) {
+            authServiceStub.setFailureRate(Double.parseDouble(option("authFailureRate", "")));
+            Map<String, Object> properties = new LinkedHashMap<>(serviceProperties);
+            properties.put("client.ms-auth-service.url", authServiceStub.url());
+            ConfigurableApplicationContext context = BenchmarkContext.startWeb(properties);
+            try {
+                BenchmarkContext.seedGenerated(context, users, new BigDecimal("1000000"));
+                baseUrl = "http://127.0.0.1:" + BenchmarkContext.port(context) + "/api/accounts";
+                httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                return drive();
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private Path drive() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(concurrency) / rate) : 0;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            // Stagger the schedules so open-loop workers do not fire in bursts.
+            long firstNanos = startNanos + intervalNanos * i / concurrency;
+            workers.execute(() -> work(firstNanos, intervalNanos));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        read.reset();
+        update.reset();
+        Instant measuredFrom = Instant.now();
+        Thread.sleep(duration.toMillis());
+        Map<String, Object> readResult = read.snapshot(duration);
+        Map<String, Object> updateResult = update.snapshot(duration);
+        Instant measuredTo = Instant.now();
+
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        operations.put(read.name, readResult);
+        operations.put(update.name, updateResult);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", measuredFrom.toString());
+        result.put("finishedAt", measuredTo.toString());
+        result.put("options", new LinkedHashMap<>(options));
+        result.put("operations", operations);
+
+        Path output = Path.of(option("output", ""));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), result);
+        return output;
+    }
+
+    private void work(long firstNanos, long intervalNanos) {
+        long intendedNanos = firstNanos;
+        while (running) {
+            if (intervalNanos > 0) {
+                long waitNanos = intendedNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    sleepNanos(waitNanos);
+                }
+            } else {
+                intendedNanos = System.nanoTime();
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long userId = BenchmarkContext.FIRST_USER_ID + pickUser(random);
+            boolean isRead = random.nextDouble() < readRatio;
+            Operation operation = isRead ? read : update;
+            HttpRequest request = isRead ? balanceRequest(userId) : updateRequest(userId, random.nextBoolean());
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                operation.record(intendedNanos, String.valueOf(status));
+            } catch (IOException ex) {
+                operation.record(intendedNanos, ex.getClass().getSimpleName());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            intendedNanos += intervalNanos;
+        }
+    }
+
+    private int pickUser(ThreadLocalRandom random) {
+        int hot = Math.max(1, (int) (users * hotUsers));
+        return random.nextDouble() < hotTraffic ? random.nextInt(hot) : random.nextInt(users);
+    }
+
+    private HttpRequest balanceRequest(long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + userId + "/balance"))
+                .header("Authorization", "Bearer " + BenchmarkContext.username(userId))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest updateRequest(long userId, boolean credit) {
+        String body = "{\"userId\":" + userId + ",\"currency\":\"USD\",\"amount\":" + (credit ? "0.01" : "-0.01") + "}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/internal/update-balance"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String option(String key, String defaultValue) {
+        return options.computeIfAbsent(key, k -> defaultValue);
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Operation {
+
+        private final String name;
+        private final Recorder latency = new Recorder(MAX_TRACKABLE_NANOS, 3);
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        void record(long intendedNanos, String outcome) {
+            latency.recordValue(Math.min(System.nanoTime() - intendedNanos, MAX_TRACKABLE_NANOS));
+            outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+        }
+
+        void reset() {
+            latency.reset();
+            outcomes.clear();
+        }
+
+        Map<String, Object> snapshot(Duration measured) {
+            Histogram histogram = latency.getIntervalHistogram();
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + percentile, millis(histogram.getValueAtPercentile(percentile)));
+            }
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            List<String> keys = new ArrayList<>(outcomes.keySet());
+            keys.sort(null);
+            keys.forEach(key -> statuses.put(key, outcomes.get(key).sum()));
+            long errors = statuses.entrySet().stream()
+                    .filter(entry -> !entry.getKey().startsWith("2"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            Map<String, Object> latencyMillis = new LinkedHashMap<>();
+            latencyMillis.put("mean", millis(histogram.getMean()));
+            latencyMillis.put("max", millis(histogram.getMaxValue()));
+            latencyMillis.put("percentiles", percentiles);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", histogram.getTotalCount());
+            result.put("errors", errors);
+            result.put("throughputPerSecond", histogram.getTotalCount() / (double) measured.toSeconds());
+            result.put("latencyMillis", latencyMillis);
+            result.put("statuses", statuses);
+            return result;
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package az.kapital.msaccountservice.benchmark;
+
+import az.kapital.msaccountservice.domain.converter.MoneyConverter;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-update work of the locking path, once on {@link BigDecimal} as before and once on
+ * {@link Money}: apply a delta, check for a negative result and, when it is, build the
+ * insufficient-funds message. Run with {@code -prof gc} to compare allocation per operation,
+ * e.g. {@code -Djmh.args="MoneyArithmeticBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class MoneyArithmeticBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MoneyConverter converter = new MoneyConverter();
+
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalCredit;
+    private BigDecimal decimalDebit;
+    private Money moneyBalance;
+    private Money moneyCredit;
+    private Money moneyDebit;
+    private BigDecimal column;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        decimalBalance = new BigDecimal("1234.5600");
+        decimalCredit = new BigDecimal("10.2500");
+        decimalDebit = new BigDecimal("-5000.0000");
+        moneyBalance = Money.of(decimalBalance);
+        moneyCredit = Money.of(decimalCredit);
+        moneyDebit = Money.of(decimalDebit);
+        column = new BigDecimal("1234.5600");
+        json = "1234.5600";
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalApply() {
+        BigDecimal next = decimalBalance.add(decimalCredit);
+        return next.compareTo(BigDecimal.ZERO) < 0 ? decimalBalance : next;
+    }
+
+    @Benchmark
+    public Money moneyApply() {
+        Money next = moneyBalance.plus(moneyCredit);
+        return next.isNegative() ? moneyBalance : next;
+    }
+
+    @Benchmark
+    public long moneyApplyMinorUnits() {
+        long next = Math.addExact(moneyBalance.minorUnits(), moneyCredit.minorUnits());
+        return next < 0 ? moneyBalance.minorUnits() : next;
+    }
+
+    @Benchmark
+    public String bigDecimalRejected() {
+        BigDecimal next = decimalBalance.add(decimalDebit);
+        return next.compareTo(BigDecimal.ZERO) < 0
+                ? String.format("Insufficient funds. Current: %s %s, Tried to spend: %s",
+                        decimalBalance, Currency.USD, decimalDebit.negate())
+                : null;
+    }
+
+    @Benchmark
+    public String moneyRejected() {
+        Money next = moneyBalance.plus(moneyDebit);
+        return next.isNegative()
+                ? "Insufficient funds. Current: " + moneyBalance + " " + Currency.USD
+                        + ", Tried to spend: " + moneyDebit.negate()
+                : null;
+    }
+
+    @Benchmark
+    public Money columnToMoney() {
+        return converter.convertToEntityAttribute(column);
+    }
+
+    @Benchmark
+    public BigDecimal moneyToColumn() {
+        return converter.convertToDatabaseColumn(moneyBalance);
+    }
+
+    @Benchmark
+    public String bigDecimalToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(decimalBalance);
+    }
+
+    @Benchmark
+    public String moneyToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(moneyBalance);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalFromJson() throws JsonProcessingException {
+        return objectMapper.readValue(json, BigDecimal.class);
+    }
+
+    @Benchmark
+    public Money moneyFromJson() throws JsonProcessingException {
+        return objectMapper.readValue(json, Money.class);
+    }
+}
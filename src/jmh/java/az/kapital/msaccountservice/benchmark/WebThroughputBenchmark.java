@@ -0,0 +1,98 @@
+package az.kapital.msaccountservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end balance reads over HTTP at high client concurrency, with the token cache off so
+ * every request blocks on the stubbed auth call, and the auth client's bulkhead off so none is
+ * rejected early. Any status other than 200 fails the run. Compares platform-thread Tomcat
+ * against virtual threads; the virtual-thread run needs a Java 21+ JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(512)
+public class WebThroughputBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"20"})
+    public long authLatencyMillis;
+
+    @Param({"1000"})
+    public int users;
+
+    private AuthServiceStub authServiceStub;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI[] uris;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        authServiceStub = AuthServiceStub.start(authLatencyMillis);
+        context = BenchmarkContext.startWeb(Map.of(
+                "spring.threads.virtual.enabled", virtualThreads,
+                "client.ms-auth-service.url", authServiceStub.url(),
+                "client.ms-auth-service.token-cache.enabled", false,
+                // The default bulkhead admits 32 calls, far below the client concurrency; left on,
+                // the run would mostly measure fast 503 rejections instead of blocking auth calls.
+                "client.ms-auth-service.resilience.enabled", false,
+                "server.tomcat.threads.max", 200));
+        BenchmarkContext.seed(context, users, new BigDecimal("1000"));
+
+        int port = BenchmarkContext.port(context);
+        uris = new URI[users];
+        for (int i = 0; i < users; i++) {
+            uris[i] = URI.create("http://127.0.0.1:" + port + "/api/accounts/"
+                    + (BenchmarkContext.FIRST_USER_ID + i) + "/balance");
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        authServiceStub.close();
+    }
+
+    @Benchmark
+    public int getBalance() throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        HttpRequest request = HttpRequest.newBuilder(uris[i])
+                .header("Authorization", "Bearer " + BenchmarkContext.username(BenchmarkContext.FIRST_USER_ID + i))
+                .GET()
+                .build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Unexpected status " + status + " from " + uris[i]);
+        }
+        return status;
+    }
+}
@@ -10,11 +10,17 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+/**
+ * Per-call logging of {@code AccountService}. Off by default because it logs every call and
+ * its full result; latency is always recorded by {@link AccountServiceMetricsInterceptor}.
+ */
 @Aspect
 @Component
 @Slf4j
+@ConditionalOnProperty(prefix = "account.aop", name = "verbose-logging", havingValue = "true")
 public class AccountServiceAop {
 
     @Pointcut(value = "execution(* az.kapital.msaccountservice.service.AccountService.*(..))")
@@ -23,9 +29,9 @@ public class AccountServiceAop {
 
     @Around(value = "accountServiceMethods()")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Object result = joinPoint.proceed();
-        long duration = System.currentTimeMillis() - start;
+        long duration = (System.nanoTime() - start) / 1_000_000;
         log.info("Method: {} | Execution time: {} ms", joinPoint.getSignature().getName(), duration);
         return result;
     }
@@ -0,0 +1,19 @@
+package az.kapital.msaccountservice.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AccountServiceMetricsConfig {
+
+    @Bean
+    public Advisor accountServiceMetricsAdvisor(MeterRegistry meterRegistry) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression("execution(* az.kapital.msaccountservice.service.AccountService.*(..))");
+        return new DefaultPointcutAdvisor(pointcut, new AccountServiceMetricsInterceptor(meterRegistry));
+    }
+}
@@ -0,0 +1,65 @@
+package az.kapital.msaccountservice.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a latency histogram per {@code AccountService} method and outcome. It is a plain
+ * {@link MethodInterceptor} rather than an {@code @Around} advice so no AspectJ join point is
+ * built per call; on the success path the only work is a map lookup and a timer record.
+ */
+public class AccountServiceMetricsInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "account.service.method";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Map<Class<?>, Timer>> errorTimers = new ConcurrentHashMap<>();
+
+    public AccountServiceMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            successTimer(invocation.getMethod()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            errorTimer(invocation.getMethod(), ex.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private Timer successTimer(Method method) {
+        Timer timer = successTimers.get(method);
+        if (timer == null) {
+            timer = successTimers.computeIfAbsent(method, key -> timer(key, "success", "none"));
+        }
+        return timer;
+    }
+
+    private Timer errorTimer(Method method, Class<?> exceptionType) {
+        return errorTimers.computeIfAbsent(method, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(exceptionType, type -> timer(method, "error", type.getSimpleName()));
+    }
+
+    private Timer timer(Method method, String outcome, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Latency of AccountService methods")
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package az.kapital.msaccountservice.aop;
+
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs a transactional call that failed on a row lock: a lock timeout, a NOWAIT or
+ * SKIP LOCKED miss, a deadlock victim or a serialization failure. Postgres reports all of them
+ * as a {@link PessimisticLockingFailureException} subtype after rolling the transaction back,
+ * so the whole call is safe to repeat. Must run outside the transaction; inside an existing
+ * one the call is passed through untouched since the enclosing transaction is already aborted.
+ * <p>
+ * The delay before retry {@code n} is uniformly random in {@code [0, initial * 2^(n-1)]},
+ * capped at {@code max-backoff}, so callers that collided once do not collide again in step.
+ */
+@Slf4j
+public class LockRetryInterceptor implements MethodInterceptor {
+
+    static final String RETRIES_METRIC = "account.lock.retries";
+    static final String FAILURES_METRIC = "account.lock.failures";
+
+    private final BalanceUpdateProperties.Retry properties;
+    private final MeterRegistry meterRegistry;
+
+    public LockRetryInterceptor(BalanceUpdateProperties.Retry properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        String method = invocation.getMethod().getName();
+        int maxAttempts = Math.max(1, properties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // A clone per attempt so the rest of the chain, the transaction advice included,
+                // runs again; a second proceed() on the same invocation would skip it.
+                Object result = invocation instanceof ProxyMethodInvocation proxyInvocation
+                        ? proxyInvocation.invocableClone().proceed()
+                        : invocation.proceed();
+                if (attempt > 1) {
+                    failures(method, "recovered").increment();
+                }
+                return result;
+            } catch (PessimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    failures(method, "exhausted").increment();
+                    throw ex;
+                }
+                long backoffMillis = backoffMillis(attempt);
+                log.debug("{} failed on a row lock (attempt {}/{}), retrying in {} ms: {}",
+                        method, attempt, maxAttempts, backoffMillis, ex.getMessage());
+                Counter.builder(RETRIES_METRIC)
+                        .description("Transactional calls re-run after a transient lock failure")
+                        .tag("method", method)
+                        .tag("exception", ex.getClass().getSimpleName())
+                        .register(meterRegistry)
+                        .increment();
+                Thread.sleep(backoffMillis);
+            }
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long cap = properties.getMaxBackoff().toMillis();
+        long ceiling = Math.min(cap, initial << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter failures(String method, String outcome) {
+        return Counter.builder(FAILURES_METRIC)
+                .description("Calls that hit a transient lock failure, by final outcome")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package az.kapital.msaccountservice.aop;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many threads may be inside an outermost transaction at once. With virtual threads
+ * every request gets a thread, so without this thousands of them would queue for a
+ * connection at once and time out there; here they wait in a fair queue with their own
+ * timeout. This only limits concurrency: it does not detect or prevent carrier pinning.
+ * Nested transactional calls do not take a second permit.
+ * <p>
+ * There is one pool of permits for all transactions, sized like the primary connection pool
+ * by default. Read-only transactions routed to replicas share it too, so with replicas
+ * configured {@code account.virtual-threads.transaction-permits} should be raised to the
+ * total size of the pools that serve traffic.
+ */
+public class TransactionPermitInterceptor implements MethodInterceptor {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public TransactionPermitInterceptor(int permits, Duration timeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.timeoutNanos = timeout.toNanos();
+        Gauge.builder("account.transaction.permits.available", this.permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("account.transaction.permits.waiting", this.permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new CannotCreateTransactionException("Timed out waiting for a transaction permit");
+        }
+        try {
+            return invocation.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package az.kapital.msaccountservice.cache;
+
+import az.kapital.msaccountservice.config.BalanceCacheProperties;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of account balances in front of {@code findBalancesByUserId}.
+ * <p>
+ * Balance changes arrive as {@link BalanceChangedEvent}s inside the updating transaction and
+ * are applied to the cached entry only after that transaction commits; a rollback leaves the
+ * entry untouched. If two transactions for the same user overlap, their after-commit callbacks
+ * may run in either order, so the entry is invalidated instead of written through.
+ * Write-throughs and loads on the same key are serialized by the cache, so a load that read
+ * the old balance cannot overwrite a newer committed one. Loaders must read from the primary;
+ * a replica may not have replayed the change that just invalidated the entry.
+ */
+@Component
+public class BalanceCache {
+
+    private final BalanceCacheProperties properties;
+    private final BalanceCacheInvalidationChannel channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Object transactionKey = new Object();
+    private final Cache<Long, List<BalanceResponse>> cache;
+    private final Map<Long, WriteState> writes = new ConcurrentHashMap<>();
+    private final Counter writeThroughs;
+    private final Counter invalidations;
+    private final Counter remoteInvalidations;
+
+    public BalanceCache(BalanceCacheProperties properties,
+                        BalanceCacheInvalidationChannel channel,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.channel = channel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "balance-cache");
+        this.writeThroughs = updates(meterRegistry, "write_through");
+        this.invalidations = updates(meterRegistry, "invalidated");
+        this.remoteInvalidations = updates(meterRegistry, "remote_invalidated");
+        channel.subscribe(nodeId, userId -> {
+            cache.invalidate(userId);
+            remoteInvalidations.increment();
+        });
+    }
+
+    /**
+     * Returns the cached balances of {@code userId}, loading them once through {@code loader}
+     * on a miss. The returned list is shared and must not be modified.
+     */
+    public List<BalanceResponse> get(Long userId, Supplier<List<BalanceResponse>> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        return cache.get(userId, id -> List.copyOf(loader.get()));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    @EventListener
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            begin(event.userId());
+            complete(event.userId(), Map.of(event.currency(), event.balance()), true);
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(transactionKey);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(transactionKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(event);
+    }
+
+    private void begin(Long userId) {
+        writes.compute(userId, (id, state) -> {
+            if (state == null) {
+                return new WriteState();
+            }
+            state.inFlight++;
+            state.overlapped = true;
+            return state;
+        });
+    }
+
+    /**
+     * Runs inside {@code writes.compute} so a transaction for the same user that starts now
+     * either waits for this write-through or is seen as overlapping.
+     */
+    private void complete(Long userId, Map<Currency, BigDecimal> balances, boolean committed) {
+        writes.compute(userId, (id, state) -> {
+            if (committed) {
+                if (state == null || state.overlapped) {
+                    cache.invalidate(userId);
+                    invalidations.increment();
+                } else {
+                    writeThrough(userId, balances);
+                }
+            }
+            if (state == null || --state.inFlight == 0) {
+                return null;
+            }
+            return state;
+        });
+        if (committed && properties.isBroadcast()) {
+            channel.publish(nodeId, userId);
+        }
+    }
+
+    private void writeThrough(Long userId, Map<Currency, BigDecimal> balances) {
+        List<BalanceResponse> updated = cache.asMap().computeIfPresent(userId, (id, cached) -> {
+            List<BalanceResponse> next = new ArrayList<>(cached.size());
+            int matched = 0;
+            for (BalanceResponse balance : cached) {
+                BigDecimal newBalance = balances.get(balance.getCurrency());
+                if (newBalance == null) {
+                    next.add(balance);
+                } else {
+                    next.add(new BalanceResponse(balance.getCurrency(), newBalance));
+                    matched++;
+                }
+            }
+            return matched == balances.size() ? List.copyOf(next) : null;
+        });
+        if (updated != null) {
+            writeThroughs.increment();
+        }
+    }
+
+    private static Counter updates(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("account.balance-cache.updates")
+                .description("Committed balance changes applied to the balance cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class WriteState {
+        private int inFlight = 1;
+        private boolean overlapped;
+    }
+
+    /**
+     * Collects the latest balance per user and currency for one transaction and applies them
+     * once it completes.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Long, Map<Currency, BigDecimal>> balances = new LinkedHashMap<>();
+
+        private void add(BalanceChangedEvent event) {
+            Map<Currency, BigDecimal> userBalances = balances.get(event.userId());
+            if (userBalances == null) {
+                userBalances = new EnumMap<>(Currency.class);
+                balances.put(event.userId(), userBalances);
+                begin(event.userId());
+            }
+            userBalances.put(event.currency(), event.balance());
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(transactionKey);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(transactionKey, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+            balances.forEach((userId, userBalances) ->
+                    complete(userId, userBalances, status == STATUS_COMMITTED));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package az.kapital.msaccountservice.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries "user X's balances changed" between nodes so each can drop its cached copy.
+ * Implementations deliver at most once and may drop messages; the cache TTL covers that.
+ */
+public interface BalanceCacheInvalidationChannel {
+
+    void publish(String originNodeId, Long userId);
+
+    void subscribe(String nodeId, Consumer<Long> listener);
+}
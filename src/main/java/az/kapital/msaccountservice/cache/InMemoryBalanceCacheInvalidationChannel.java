@@ -0,0 +1,28 @@
+package az.kapital.msaccountservice.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations between caches in the same JVM. The default when no other channel
+ * is configured, and the stand-in for several nodes in tests.
+ */
+public class InMemoryBalanceCacheInvalidationChannel implements BalanceCacheInvalidationChannel {
+
+    private final Map<String, Consumer<Long>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String originNodeId, Long userId) {
+        listeners.forEach((nodeId, listener) -> {
+            if (!nodeId.equals(originNodeId)) {
+                listener.accept(userId);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<Long> listener) {
+        listeners.put(nodeId, listener);
+    }
+}
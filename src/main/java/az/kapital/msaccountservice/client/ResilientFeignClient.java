@@ -0,0 +1,67 @@
+package az.kapital.msaccountservice.client;
+
+import az.kapital.msaccountservice.exception.AuthServiceUnavailableException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.io.IOException;
+
+/**
+ * Wraps the pooled HTTP client. A call first needs a bulkhead permit, then the circuit
+ * breaker's permission; either refusal fails immediately with
+ * {@link AuthServiceUnavailableException} instead of parking a request thread behind a slow
+ * ms-auth-service. I/O errors, timeouts and 5xx answers count as breaker failures; 4xx
+ * answers are the service working normally.
+ */
+public class ResilientFeignClient implements Client {
+
+    private final Client delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientFeignClient(Client delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException ex) {
+            throw new AuthServiceUnavailableException("Too many concurrent calls to ms-auth-service.");
+        }
+        try {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (CallNotPermittedException ex) {
+                throw new AuthServiceUnavailableException("ms-auth-service is unavailable, circuit is "
+                        + circuitBreaker.getState() + ".");
+            }
+            long start = circuitBreaker.getCurrentTimestamp();
+            try {
+                Response response = delegate.execute(request, options);
+                long duration = circuitBreaker.getCurrentTimestamp() - start;
+                if (response.status() >= 500) {
+                    circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                            new AuthServiceUnavailableException("ms-auth-service answered " + response.status()));
+                } else {
+                    circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+                }
+                return response;
+            } catch (IOException | RuntimeException ex) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                        circuitBreaker.getTimestampUnit(), ex);
+                throw ex;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
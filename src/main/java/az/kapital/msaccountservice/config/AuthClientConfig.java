@@ -0,0 +1,93 @@
+package az.kapital.msaccountservice.config;
+
+import az.kapital.msaccountservice.client.ResilientFeignClient;
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulkhead and circuit breaker for {@code AuthServiceClient}, applied as a Feign
+ * {@link Capability} around the pooled hc5 client that Spring Cloud OpenFeign configures,
+ * plus metrics for both and for the connection pool.
+ */
+@Configuration
+public class AuthClientConfig {
+
+    private static final String CLIENT_NAME = "ms-auth-service";
+
+    @Bean
+    public CircuitBreakerRegistry authServiceCircuitBreakerRegistry(AuthClientResilienceProperties properties) {
+        AuthClientResilienceProperties.CircuitBreaker breaker = properties.getCircuitBreaker();
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallDurationThreshold(breaker.getSlowCallDurationThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breaker.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(breaker.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+    }
+
+    @Bean
+    public BulkheadRegistry authServiceBulkheadRegistry(AuthClientResilienceProperties properties) {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getBulkhead().getMaxWait())
+                .build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "client.ms-auth-service.resilience", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public Capability authServiceResilienceCapability(CircuitBreakerRegistry authServiceCircuitBreakerRegistry,
+                                                      BulkheadRegistry authServiceBulkheadRegistry) {
+        CircuitBreaker circuitBreaker = authServiceCircuitBreakerRegistry.circuitBreaker(CLIENT_NAME);
+        Bulkhead bulkhead = authServiceBulkheadRegistry.bulkhead(CLIENT_NAME);
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                return new ResilientFeignClient(client, circuitBreaker, bulkhead);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder authServiceCircuitBreakerMetrics(CircuitBreakerRegistry authServiceCircuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(authServiceCircuitBreakerRegistry);
+    }
+
+    @Bean
+    public MeterBinder authServiceBulkheadMetrics(BulkheadRegistry authServiceBulkheadRegistry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(authServiceBulkheadRegistry);
+    }
+
+    /**
+     * Leased, available and pending connections of the hc5 pool, tagged
+     * {@code httpclient=ms-auth-service}.
+     */
+    @Bean
+    public MeterBinder authServiceConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, CLIENT_NAME).bindTo(registry);
+            }
+        });
+    }
+}
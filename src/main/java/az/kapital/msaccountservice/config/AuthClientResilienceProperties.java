@@ -0,0 +1,56 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Guards around calls to ms-auth-service. Connection pooling and connect/read timeouts are
+ * configured through {@code spring.cloud.openfeign.httpclient} and
+ * {@code spring.cloud.openfeign.client.config.ms-auth-service}.
+ */
+@Data
+@ConfigurationProperties(prefix = "client.ms-auth-service.resilience")
+public class AuthClientResilienceProperties {
+
+    private boolean enabled = true;
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Validations allowed in flight at once; keep it below the Tomcat thread count so a
+         * slow auth service cannot occupy every request thread.
+         */
+        private int maxConcurrentCalls = 32;
+
+        private Duration maxWait = Duration.ofMillis(10);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        private float failureRateThreshold = 50;
+
+        /**
+         * Calls slower than this count as slow; a breaker that sees mostly slow calls opens
+         * even when they eventually succeed.
+         */
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(1);
+
+        private float slowCallRateThreshold = 80;
+
+        private int slidingWindowSize = 50;
+
+        private int minimumNumberOfCalls = 20;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(5);
+
+        private int permittedCallsInHalfOpenState = 5;
+    }
+}
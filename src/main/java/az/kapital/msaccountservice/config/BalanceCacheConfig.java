@@ -0,0 +1,17 @@
+package az.kapital.msaccountservice.config;
+
+import az.kapital.msaccountservice.cache.BalanceCacheInvalidationChannel;
+import az.kapital.msaccountservice.cache.InMemoryBalanceCacheInvalidationChannel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BalanceCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BalanceCacheInvalidationChannel balanceCacheInvalidationChannel() {
+        return new InMemoryBalanceCacheInvalidationChannel();
+    }
+}
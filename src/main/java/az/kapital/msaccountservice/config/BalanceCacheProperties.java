@@ -0,0 +1,26 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "account.balance-cache")
+public class BalanceCacheProperties {
+
+    private boolean enabled = false;
+
+    private long maximumSize = 100_000;
+
+    /**
+     * Bounds staleness from writes this node never hears about, e.g. a lost cross-node
+     * invalidation or a manual fix in the database.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /**
+     * Publish committed changes on the invalidation channel so other nodes drop their copy.
+     */
+    private boolean broadcast = false;
+}
@@ -0,0 +1,74 @@
+package az.kapital.msaccountservice.config;
+
+import az.kapital.msaccountservice.model.BalanceUpdateStrategy;
+import az.kapital.msaccountservice.model.LockWaitMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "account.balance-update")
+public class BalanceUpdateProperties {
+
+    private BalanceUpdateStrategy strategy = BalanceUpdateStrategy.ATOMIC;
+
+    private int maxBatchSize = 5_000;
+
+    private Combining combining = new Combining();
+
+    private Lock lock = new Lock();
+
+    @Data
+    public static class Combining {
+
+        private boolean enabled = false;
+
+        /**
+         * How long the first caller for an account waits for concurrent updates to join its
+         * transaction. Adds at most this much latency to an uncontended update.
+         */
+        private Duration window = Duration.ofMillis(2);
+
+        private int maxBatchSize = 256;
+    }
+
+    @Data
+    public static class Lock {
+
+        /**
+         * Applies to the paths that lock rows with {@code SELECT ... FOR UPDATE}: the LOCKING
+         * strategy, batches and transfers. The ATOMIC strategy's single UPDATE always waits,
+         * bounded only by the connection's {@code lock_timeout} from
+         * {@code spring.datasource.hikari.connection-init-sql}.
+         */
+        private LockWaitMode mode = LockWaitMode.WAIT;
+
+        /**
+         * Longest a locking statement waits for a row in WAIT mode before failing with a
+         * retryable error. Zero leaves the connection's {@code lock_timeout} in effect.
+         */
+        private Duration timeout = Duration.ofSeconds(2);
+
+        private Retry retry = new Retry();
+    }
+
+    @Data
+    public static class Retry {
+
+        private boolean enabled = true;
+
+        /**
+         * Attempts including the first one.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Upper bound of the random delay before the first retry; doubles per retry up to
+         * {@code max-backoff}.
+         */
+        private Duration initialBackoff = Duration.ofMillis(20);
+
+        private Duration maxBackoff = Duration.ofMillis(500);
+    }
+}
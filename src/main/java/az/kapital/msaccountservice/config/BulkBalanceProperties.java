@@ -0,0 +1,25 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "account.bulk-balance")
+public class BulkBalanceProperties {
+
+    /**
+     * Distinct userIds accepted per request; larger requests are rejected as invalid.
+     */
+    private int maxUserIds = 10_000;
+
+    /**
+     * userIds bound into one {@code ANY(array)} query.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Chunks queried at the same time, each on its own connection; keep well below the
+     * Hikari pool size.
+     */
+    private int parallelism = 4;
+}
@@ -0,0 +1,16 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "account.export")
+public class ExportProperties {
+
+    /**
+     * Rows fetched from the cursor per round trip.
+     */
+    private int fetchSize = 5000;
+
+    private int bufferSize = 64 * 1024;
+}
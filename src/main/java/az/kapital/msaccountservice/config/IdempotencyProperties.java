@@ -0,0 +1,23 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "account.idempotency")
+public class IdempotencyProperties {
+
+    private long cacheMaximumSize = 100_000;
+
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * How long keys are kept in balance_update_idempotency. Upstream retries older than
+     * this are applied again.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    private String purgeCron = "0 0 * * * *";
+}
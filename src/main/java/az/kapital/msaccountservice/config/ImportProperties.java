@@ -0,0 +1,20 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "account.import")
+public class ImportProperties {
+
+    /**
+     * Rows written per transaction; a chunk that fails as a whole is reported and the import
+     * carries on with the next one.
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Row errors kept for the report; further errors are only counted.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,32 @@
+package az.kapital.msaccountservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.converter.RsaKeyConverters;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.interfaces.RSAPublicKey;
+
+@Configuration
+@ConditionalOnProperty(prefix = "client.ms-auth-service.local-verification", name = "enabled", havingValue = "true")
+public class JwtVerificationConfig {
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwtVerificationProperties properties) throws IOException {
+        if (properties.getJwkSetUri() != null) {
+            return NimbusJwtDecoder.withJwkSetUri(properties.getJwkSetUri()).build();
+        }
+        if (properties.getPublicKeyLocation() != null) {
+            try (InputStream inputStream = properties.getPublicKeyLocation().getInputStream()) {
+                RSAPublicKey publicKey = RsaKeyConverters.x509().convert(inputStream);
+                return NimbusJwtDecoder.withPublicKey(publicKey).build();
+            }
+        }
+        throw new IllegalStateException(
+                "Local token verification requires jwk-set-uri or public-key-location to be set");
+    }
+}
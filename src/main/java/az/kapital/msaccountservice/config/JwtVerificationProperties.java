@@ -0,0 +1,33 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+@Data
+@ConfigurationProperties(prefix = "client.ms-auth-service.local-verification")
+public class JwtVerificationProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * JWKS endpoint of ms-auth-service. The key set is cached by the decoder and only
+     * refetched when a token arrives with an unknown key id.
+     */
+    private String jwkSetUri;
+
+    /**
+     * X.509 PEM public key, used instead of {@link #jwkSetUri} when the key is distributed
+     * with the deployment.
+     */
+    private Resource publicKeyLocation;
+
+    private String usernameClaim = "sub";
+
+    /**
+     * Falls back to the remote {@code /api/auth/validate} call when the token cannot be
+     * checked locally, e.g. the JWKS endpoint is unreachable. Tokens that fail signature
+     * or expiry checks are always rejected.
+     */
+    private boolean fallbackToRemote = true;
+}
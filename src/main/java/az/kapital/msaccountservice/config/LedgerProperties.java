@@ -0,0 +1,36 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "account.ledger")
+public class LedgerProperties {
+
+    private boolean enabled = true;
+
+    private String snapshotCron = "0 */15 * * * *";
+
+    /**
+     * Accounts with fewer new ledger rows than this keep their previous snapshot; a
+     * balance-as-of query replays at most about this many rows per account.
+     */
+    private int snapshotMinEntries = 100;
+
+    /**
+     * History snapshots older than this are deleted after each snapshot run. Balance-as-of
+     * queries further back replay the ledger from the account's first entry instead.
+     */
+    private Duration snapshotRetention = Duration.ofDays(90);
+
+    private String reconciliationCron = "0 30 3 * * *";
+
+    private int reconciliationFetchSize = 1000;
+
+    /**
+     * Mismatching accounts logged individually per run; the rest are only counted.
+     */
+    private int reconciliationLogLimit = 100;
+}
@@ -0,0 +1,34 @@
+package az.kapital.msaccountservice.config;
+
+import az.kapital.msaccountservice.aop.LockRetryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the balance-changing {@code AccountService} methods in {@link LockRetryInterceptor}.
+ * The advisor has the highest precedence so each retry starts a fresh transaction and the
+ * backoff sleep holds neither a connection nor a transaction permit.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.balance-update.lock.retry", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class LockRetryConfig {
+
+    @Bean
+    public Advisor lockRetryAdvisor(BalanceUpdateProperties properties, MeterRegistry meterRegistry) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(
+                "execution(* az.kapital.msaccountservice.service.AccountService.updateBalance*(..)) || "
+                        + "execution(* az.kapital.msaccountservice.service.AccountService.transfer(..))");
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+                new LockRetryInterceptor(properties.getLock().getRetry(), meterRegistry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
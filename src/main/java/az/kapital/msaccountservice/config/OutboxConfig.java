@@ -0,0 +1,26 @@
+package az.kapital.msaccountservice.config;
+
+import az.kapital.msaccountservice.outbox.BalanceEventSink;
+import az.kapital.msaccountservice.outbox.FileBalanceEventSink;
+import az.kapital.msaccountservice.outbox.InMemoryBalanceEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(prefix = "account.outbox", name = "enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BalanceEventSink balanceEventSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.getSink()) {
+            case MEMORY -> new InMemoryBalanceEventSink();
+            case FILE -> new FileBalanceEventSink(Path.of(properties.getFilePath()), objectMapper);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "account.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    private int batchSize = 500;
+
+    private long flushIntervalMs = 1000;
+
+    private Sink sink = Sink.MEMORY;
+
+    /**
+     * NDJSON file the {@code file} sink appends to.
+     */
+    private String filePath = "balance-events.ndjson";
+
+    public enum Sink {
+        MEMORY, FILE
+    }
+}
@@ -0,0 +1,21 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "client.ms-auth-service.token-cache")
+public class TokenCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    /**
+     * Upper bound for how long a validated token is trusted locally. Tokens carrying
+     * an earlier {@code exp} claim are evicted at that instant instead.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
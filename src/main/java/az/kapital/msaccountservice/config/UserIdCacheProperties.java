@@ -0,0 +1,23 @@
+package az.kapital.msaccountservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "account.user-id-cache")
+public class UserIdCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 100_000;
+
+    /**
+     * Upper bound on how long a node keeps serving a stale mapping after a rename. Evictions
+     * through {@code UserIdResolver#evict} or {@code #evictAll} only clear the node that
+     * receives them, so a rename must be evicted on every node; this TTL covers the nodes
+     * that were missed.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,42 @@
+package az.kapital.msaccountservice.config;
+
+import az.kapital.msaccountservice.aop.TransactionPermitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true} on a Java 21+ runtime; Boot then runs
+ * Tomcat request handling, and with it the blocking {@code AuthServiceClient} call, on virtual
+ * threads. Start with {@code -Djdk.tracePinnedThreads=short} to report pinning.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public Advisor transactionPermitAdvisor(
+            @Value("${account.virtual-threads.transaction-permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int permits,
+            @Value("${account.virtual-threads.permit-timeout:30s}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression("execution(* az.kapital.msaccountservice..*(..)) && "
+                + "(@annotation(org.springframework.transaction.annotation.Transactional) || "
+                + "@within(org.springframework.transaction.annotation.Transactional))");
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+                new TransactionPermitInterceptor(permits, timeout, meterRegistry));
+        // Inside LockRetryConfig's advisor so a retry's backoff does not hold a permit.
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+}
@@ -0,0 +1,38 @@
+package az.kapital.msaccountservice.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "account.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Replicas further behind the primary than this stop receiving reads until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private long lagCheckIntervalMs = 5_000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 20;
+    }
+}
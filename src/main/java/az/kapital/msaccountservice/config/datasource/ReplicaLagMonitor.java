@@ -0,0 +1,63 @@
+package az.kapital.msaccountservice.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Polls each replica for its replay lag and takes it out of rotation while it is behind by
+ * more than {@code max-lag} or cannot be reached. A replica that has replayed everything it
+ * received reports zero lag even if the primary has been idle.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final ReadReplicaRoutingDataSource routingDataSource;
+    private final ReadReplicaProperties properties;
+
+    public ReplicaLagMonitor(ReadReplicaRoutingDataSource routingDataSource,
+                             ReadReplicaProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+        routingDataSource.getReplicas().forEach(replica -> {
+            Gauge.builder("account.datasource.replica.lag", replica, ReadReplicaRoutingDataSource.ReplicaTarget::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("account.datasource.replica.healthy", replica, target -> target.isHealthy() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${account.datasource.read-replicas.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        double maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        for (ReadReplicaRoutingDataSource.ReplicaTarget replica : routingDataSource.getReplicas()) {
+            try {
+                Double lag = new JdbcTemplate(replica.getDataSource()).queryForObject(LAG_QUERY, Double.class);
+                double lagSeconds = lag == null ? 0 : lag;
+                boolean healthy = lagSeconds <= maxLagSeconds;
+                if (healthy != replica.isHealthy()) {
+                    log.warn("Replica {} is now {} (lag {}s)", replica.getName(), healthy ? "in rotation" : "out of rotation", lagSeconds);
+                }
+                replica.update(healthy, lagSeconds);
+            } catch (Exception ex) {
+                if (replica.isHealthy()) {
+                    log.warn("Replica {} is unreachable, routing reads to primary: {}", replica.getName(), ex.getMessage());
+                }
+                replica.update(false, replica.getLagSeconds());
+            }
+        }
+    }
+}
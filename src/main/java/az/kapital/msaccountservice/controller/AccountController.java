@@ -1,20 +1,47 @@
 package az.kapital.msaccountservice.controller;
 
-import az.kapital.msaccountservice.domain.entity.AccountEntity;
+import az.kapital.msaccountservice.export.AccountExportService;
+import az.kapital.msaccountservice.ledger.LedgerService;
+import az.kapital.msaccountservice.model.AccountImportReport;
 import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceAsOfResponse;
+import az.kapital.msaccountservice.model.BalanceResponse;
 import az.kapital.msaccountservice.model.BalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BalanceUpdateResult;
+import az.kapital.msaccountservice.model.BatchBalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BulkBalanceRequest;
+import az.kapital.msaccountservice.model.BulkBalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.ExportFormat;
+import az.kapital.msaccountservice.model.TransferRequest;
+import az.kapital.msaccountservice.model.TransferResponse;
+import az.kapital.msaccountservice.provisioning.AccountImportService;
 import az.kapital.msaccountservice.service.AccountService;
+import az.kapital.msaccountservice.service.BalanceUpdateCombiner;
+import az.kapital.msaccountservice.service.BulkBalanceService;
+import az.kapital.msaccountservice.service.IdempotencyStore;
+import az.kapital.msaccountservice.service.UserIdResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -22,13 +49,20 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final BalanceUpdateCombiner balanceUpdateCombiner;
+    private final IdempotencyStore idempotencyStore;
+    private final UserIdResolver userIdResolver;
+    private final LedgerService ledgerService;
+    private final AccountExportService accountExportService;
+    private final AccountImportService accountImportService;
+    private final BulkBalanceService bulkBalanceService;
 
     @GetMapping("/{userId}/balance")
-    public ResponseEntity<List<AccountEntity>> getBalance(
+    public ResponseEntity<List<BalanceResponse>> getBalance(
             @PathVariable Long userId,
             @RequestHeader("Authorization") String authorizationHeader) {
 
-        List<AccountEntity> balances = accountService.getBalanceForUser(userId, authorizationHeader);
+        List<BalanceResponse> balances = accountService.getBalanceForUser(userId, authorizationHeader);
         return ResponseEntity.ok(balances);
     }
 
@@ -36,11 +70,107 @@ public class AccountController {
     public ResponseEntity<AccountResponse> updateBalance(
             @RequestBody BalanceUpdateRequest request) {
 
-        AccountResponse updatedAccount = accountService.updateBalance(
-                request.getUserId(),
-                request.getCurrency(),
-                request.getAmount()
-        );
-        return ResponseEntity.ok(updatedAccount);
+        Optional<AccountResponse> replayed = idempotencyStore.find(request.getIdempotencyKey(),
+                request.getUserId(), request.getCurrency(), request.getAmount());
+        if (replayed.isPresent()) {
+            return ResponseEntity.ok(replayed.get());
+        }
+
+        try {
+            AccountResponse updatedAccount = balanceUpdateCombiner.updateBalance(
+                    request.getUserId(),
+                    request.getCurrency(),
+                    request.getAmount(),
+                    request.getIdempotencyKey()
+            );
+            return ResponseEntity.ok(updatedAccount);
+        } catch (DataIntegrityViolationException ex) {
+            // Duplicates normally queue on the key lock; if one still lost the race on the
+            // primary key, answer with the record the winner stored.
+            return idempotencyStore.find(request.getIdempotencyKey(),
+                            request.getUserId(), request.getCurrency(), request.getAmount())
+                    .map(ResponseEntity::ok)
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    @PostMapping("/internal/update-balance/batch")
+    public ResponseEntity<List<BalanceUpdateResult>> updateBalances(
+            @RequestBody BatchBalanceUpdateRequest request) {
+
+        return ResponseEntity.ok(accountService.updateBalances(request.getUpdates()));
+    }
+
+    /**
+     * Balances for many users in one call; POST because the id list is too long for a query
+     * string.
+     */
+    @PostMapping("/internal/balances")
+    public ResponseEntity<BulkBalanceResponse> getBalances(
+            @RequestBody BulkBalanceRequest request) {
+
+        return ResponseEntity.ok(bulkBalanceService.getBalances(request));
+    }
+
+    @PostMapping("/internal/transfer")
+    public ResponseEntity<TransferResponse> transfer(
+            @RequestBody TransferRequest request) {
+
+        return ResponseEntity.ok(accountService.transfer(request));
+    }
+
+    @GetMapping("/internal/ledger/{accountId}/balance")
+    public ResponseEntity<BalanceAsOfResponse> getBalanceAsOf(
+            @PathVariable Long accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        return ResponseEntity.ok(new BalanceAsOfResponse(accountId, at, ledgerService.balanceAsOf(accountId, at)));
+    }
+
+    /**
+     * Streams all accounts to the response as they are read; nothing is buffered beyond the
+     * cursor fetch size and the output buffer.
+     */
+    @GetMapping("/internal/export")
+    public void exportAccounts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Currency currency,
+            HttpServletResponse response) throws IOException {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"accounts." + exportFormat.getExtension() + "\"");
+        accountExportService.export(exportFormat, currency, response.getOutputStream());
+    }
+
+    /**
+     * Reads the request body as a stream; upload the file as the raw body, not as a
+     * multipart form, so it is never buffered in full.
+     */
+    @PostMapping("/internal/import")
+    public ResponseEntity<AccountImportReport> importAccounts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+
+        return ResponseEntity.ok(accountImportService.importAccounts(
+                ExportFormat.from(format), request.getInputStream()));
+    }
+
+    /**
+     * Clears this node's username cache only; after a rename call it on every node, or other
+     * nodes keep the old mapping until {@code account.user-id-cache.ttl} expires.
+     */
+    @DeleteMapping("/internal/user-cache")
+    public ResponseEntity<Void> evictUserCache(
+            @RequestParam(required = false) String username) {
+
+        if (username == null) {
+            userIdResolver.evictAll();
+        } else {
+            userIdResolver.evict(username);
+        }
+        return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package az.kapital.msaccountservice.domain.converter;
+
+import az.kapital.msaccountservice.model.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@code DECIMAL(19, 4)} columns to {@link Money}. Marked immutable so Hibernate keeps the
+ * loaded instance as the dirty-check snapshot instead of deep-copying it through this converter.
+ */
+@Immutable
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal value) {
+        return value == null ? null : Money.of(value);
+    }
+}
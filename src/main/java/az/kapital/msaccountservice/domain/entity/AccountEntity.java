@@ -1,7 +1,10 @@
 package az.kapital.msaccountservice.domain.entity;
 
+import az.kapital.msaccountservice.domain.converter.MoneyConverter;
 import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.Money;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -12,24 +15,23 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
-@Table(name = "account")
+@Table(name = "account", uniqueConstraints = @UniqueConstraint(
+        name = "ux_account_user_id_currency", columnNames = {"user_id", "currency"}))
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class AccountEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private UserEntity user;
 
@@ -38,6 +40,24 @@ public class AccountEntity {
     private Currency currency;
 
     @Column(nullable = false, precision = 19, scale = 4)
-    private BigDecimal balance;
-
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+
+    /**
+     * Read-only copy of {@code user_id}. As the partition key it is added to the WHERE clause of
+     * the UPDATEs Hibernate issues on flush, so they hit a single partition when account is
+     * hash-partitioned on {@code user_id} (changelogs 011 and 012) instead of probing all of
+     * them by id.
+     */
+    @PartitionKey
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
+    public AccountEntity(Long id, UserEntity user, Currency currency, Money balance) {
+        this.id = id;
+        this.user = user;
+        this.currency = currency;
+        this.balance = balance;
+        this.userId = user == null ? null : user.getId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package az.kapital.msaccountservice.domain.entity;
+
+import az.kapital.msaccountservice.model.Currency;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One balance change waiting to be relayed. The id is drawn from the sequence one value at a
+ * time while the account row is locked, so for any single account ids follow commit order
+ * on every node. A pooled allocation would break that across nodes.
+ */
+@Entity
+@Table(name = "balance_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_outbox_seq")
+    @SequenceGenerator(name = "balance_outbox_seq", sequenceName = "balance_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Currency currency;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
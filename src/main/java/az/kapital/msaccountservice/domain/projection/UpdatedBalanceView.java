@@ -0,0 +1,12 @@
+package az.kapital.msaccountservice.domain.projection;
+
+import java.math.BigDecimal;
+
+public interface UpdatedBalanceView {
+
+    Long getId();
+
+    Long getUserId();
+
+    BigDecimal getBalance();
+}
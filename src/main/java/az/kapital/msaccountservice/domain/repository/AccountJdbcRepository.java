@@ -0,0 +1,126 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import az.kapital.msaccountservice.model.AccountKey;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC access to account for bulk work where entities would only add overhead.
+ */
+@Repository
+public class AccountJdbcRepository {
+
+    private static final String SELECT_ACCOUNTS = "SELECT id, user_id, currency, balance FROM account";
+
+    private static final String INSERT_USERS = "INSERT INTO account_user (id, username) "
+            + "SELECT * FROM unnest(?::bigint[], ?::varchar[]) ON CONFLICT DO NOTHING";
+
+    private static final String SELECT_USERNAMES = "SELECT id, username FROM account_user WHERE id = ANY(?::bigint[])";
+
+    private static final String SELECT_ACCOUNT_KEYS = "SELECT user_id, currency FROM account WHERE user_id = ANY(?::bigint[])";
+
+    private static final String SELECT_BALANCES = "SELECT user_id, currency, balance FROM account "
+            + "WHERE user_id = ANY(?::bigint[]) AND currency = ANY(?::varchar[])";
+
+    private static final String INSERT_ACCOUNTS = "INSERT INTO account (user_id, currency, balance) "
+            + "SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::numeric[])";
+
+    private static final String INSERT_ACCOUNTS_WITH_LEDGER = "WITH inserted AS (" + INSERT_ACCOUNTS
+            + " RETURNING id, balance) INSERT INTO balance_ledger (account_id, amount, created_at) "
+            + "SELECT id, balance, clock_timestamp() FROM inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams accounts in id order, optionally for one currency. With a fetch size and an
+     * open transaction the Postgres driver reads through a server-side cursor, holding only
+     * {@code fetchSize} rows at a time.
+     */
+    public void streamAccounts(Currency currency, int fetchSize, RowCallbackHandler handler) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        if (currency == null) {
+            streaming.query(SELECT_ACCOUNTS + " ORDER BY id", handler);
+        } else {
+            streaming.query(SELECT_ACCOUNTS + " WHERE currency = ? ORDER BY id", handler, currency.name());
+        }
+    }
+
+    /**
+     * Inserts the users in one statement; ids or usernames that already exist are skipped
+     * and can be told apart afterwards with {@link #findUsernames}.
+     */
+    public void insertUsers(List<Long> ids, List<String> usernames) {
+        jdbcTemplate.update(INSERT_USERS, ps -> {
+            ps.setArray(1, array(ps, "bigint", ids));
+            ps.setArray(2, array(ps, "varchar", usernames));
+        });
+    }
+
+    public Map<Long, String> findUsernames(Collection<Long> ids) {
+        Map<Long, String> usernames = new HashMap<>();
+        jdbcTemplate.query(SELECT_USERNAMES, ps -> ps.setArray(1, array(ps, "bigint", ids)),
+                (RowCallbackHandler) rs -> usernames.put(rs.getLong("id"), rs.getString("username")));
+        return usernames;
+    }
+
+    public Set<AccountKey> findAccountKeys(Collection<Long> userIds) {
+        Set<AccountKey> keys = new HashSet<>();
+        jdbcTemplate.query(SELECT_ACCOUNT_KEYS, ps -> ps.setArray(1, array(ps, "bigint", userIds)),
+                (RowCallbackHandler) rs -> keys.add(
+                        new AccountKey(rs.getLong("user_id"), Currency.valueOf(rs.getString("currency")))));
+        return keys;
+    }
+
+    /**
+     * Balances of all {@code userIds} in the given currencies with a single statement; the
+     * arrays are bound as two parameters whatever their length, so the plan is reused.
+     */
+    public Map<Long, Map<Currency, Money>> findBalances(Collection<Long> userIds, Collection<Currency> currencies) {
+        Map<Long, Map<Currency, Money>> balances = new HashMap<>();
+        jdbcTemplate.query(SELECT_BALANCES, ps -> {
+            ps.setArray(1, array(ps, "bigint", userIds));
+            ps.setArray(2, array(ps, "varchar", currencies.stream().map(Enum::name).toList()));
+        }, (RowCallbackHandler) rs -> balances
+                .computeIfAbsent(rs.getLong("user_id"), id -> new EnumMap<>(Currency.class))
+                .put(Currency.valueOf(rs.getString("currency")), Money.of(rs.getBigDecimal("balance"))));
+        return balances;
+    }
+
+    /**
+     * Inserts all accounts with one set-based statement instead of a round trip per row;
+     * identity ids are assigned by Postgres, so nothing has to be returned to the client.
+     * With {@code withLedger} each account also gets its opening ledger entry.
+     */
+    public int insertAccounts(List<Long> userIds, List<Currency> currencies, List<BigDecimal> balances,
+                              boolean withLedger) {
+        return jdbcTemplate.update(withLedger ? INSERT_ACCOUNTS_WITH_LEDGER : INSERT_ACCOUNTS, ps -> {
+            ps.setArray(1, array(ps, "bigint", userIds));
+            ps.setArray(2, array(ps, "varchar", currencies.stream().map(Enum::name).toList()));
+            ps.setArray(3, array(ps, "numeric", balances));
+        });
+    }
+
+    private static Array array(PreparedStatement ps, String type, Collection<?> values) throws SQLException {
+        return ps.getConnection().createArrayOf(type, values.toArray());
+    }
+}
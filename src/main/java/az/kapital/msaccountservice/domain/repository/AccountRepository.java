@@ -1,21 +1,45 @@
 package az.kapital.msaccountservice.domain.repository;
 
 import az.kapital.msaccountservice.domain.entity.AccountEntity;
+import az.kapital.msaccountservice.domain.projection.UpdatedBalanceView;
+import az.kapital.msaccountservice.model.BalanceResponse;
 import az.kapital.msaccountservice.model.Currency;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
 
-    List<AccountEntity> findByUserId(Long userId);
+    /**
+     * Read path for the balance endpoint: selects only the two columns it returns, without
+     * joining account_user or putting entities into the persistence context. Runs in its own
+     * read-only transaction, which a replica may serve, when the caller has none.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new az.kapital.msaccountservice.model.BalanceResponse(a.currency, a.balance) "
+            + "FROM AccountEntity a WHERE a.user.id = :userId")
+    List<BalanceResponse> findBalancesByUserId(@Param("userId") Long userId);
+
+    /**
+     * {@link #findBalancesByUserId} in a read-write transaction, so it is always served by the
+     * primary. Used to fill the balance cache: a value read from a replica that has not yet
+     * replayed the latest update would be cached and served until the entry expires.
+     */
+    @Transactional
+    @Query("SELECT new az.kapital.msaccountservice.model.BalanceResponse(a.currency, a.balance) "
+            + "FROM AccountEntity a WHERE a.user.id = :userId")
+    List<BalanceResponse> findBalancesByUserIdOnPrimary(@Param("userId") Long userId);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM AccountEntity a WHERE a.user.id = :userId AND a.currency = :currency")
@@ -23,4 +47,52 @@ public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
             @Param("userId") Long userId,
             @Param("currency") Currency currency
     );
+
+    /**
+     * {@code FOR UPDATE NOWAIT}: a lock timeout hint of 0 makes Hibernate fail immediately
+     * when the row is held.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT a FROM AccountEntity a WHERE a.user.id = :userId AND a.currency = :currency")
+    Optional<AccountEntity> findByUserIdAndCurrencyWithLockNoWait(
+            @Param("userId") Long userId,
+            @Param("currency") Currency currency
+    );
+
+    /**
+     * {@code FOR UPDATE SKIP LOCKED}: -2 is Hibernate's SKIP_LOCKED timeout. Returns empty both
+     * when the account does not exist and when another transaction holds it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT a FROM AccountEntity a WHERE a.user.id = :userId AND a.currency = :currency")
+    Optional<AccountEntity> findByUserIdAndCurrencyWithLockSkipLocked(
+            @Param("userId") Long userId,
+            @Param("currency") Currency currency
+    );
+
+    /**
+     * Sets {@code lock_timeout} for the rest of the current transaction, e.g. {@code "2000ms"}.
+     * Postgres then fails a blocked lock with SQLSTATE 55P03 instead of waiting.
+     */
+    @Query(value = "SELECT set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
+
+    Optional<AccountEntity> findByUserIdAndCurrency(Long userId, Currency currency);
+
+    /**
+     * Adds {@code amount} only if the result stays non-negative. Returns empty when the account
+     * does not exist or funds are insufficient; the caller tells the two apart with a plain read.
+     */
+    @Query(value = """
+            UPDATE account SET balance = balance + :amount
+            WHERE user_id = :userId AND currency = :currency AND balance + :amount >= 0
+            RETURNING id, user_id AS "userId", balance
+            """, nativeQuery = true)
+    Optional<UpdatedBalanceView> addToBalanceIfSufficient(
+            @Param("userId") Long userId,
+            @Param("currency") String currency,
+            @Param("amount") BigDecimal amount
+    );
 }
@@ -0,0 +1,29 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import az.kapital.msaccountservice.domain.entity.BalanceOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BalanceOutboxRepository extends JpaRepository<BalanceOutboxEntity, Long> {
+
+    /**
+     * Transaction-scoped advisory lock that keeps the relay to one node at a time; two relays
+     * publishing interleaved batches could reorder events of the same account.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockId") long lockId);
+
+    @Query(value = "SELECT * FROM balance_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<BalanceOutboxEntity> findOldest(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM BalanceOutboxEntity o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,28 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import az.kapital.msaccountservice.domain.entity.IdempotencyRecordEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecordEntity r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Takes a transaction-scoped advisory lock per key, in list order. A second transaction
+     * with the same key waits here until the first commits or rolls back, and then sees its
+     * record instead of failing on the primary key.
+     */
+    @Query(value = "SELECT COUNT(pg_advisory_xact_lock(hashtextextended(k, 0))) FROM unnest(ARRAY[:keys]) AS k",
+            nativeQuery = true)
+    long lockKeys(@Param("keys") List<String> keys);
+}
@@ -0,0 +1,112 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to balance_ledger and the balance_snapshot tables. Ledger rows are only
+ * ever inserted in batches and read back as sums, which does not need entities.
+ */
+@Repository
+public class LedgerRepository {
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO balance_ledger (account_id, amount, created_at) VALUES (?, ?, clock_timestamp())";
+
+    private static final String TAKE_SNAPSHOTS = "WITH taken AS ("
+            + "SELECT l.account_id, MAX(l.id) AS ledger_id, COALESCE(MAX(s.balance), 0) + SUM(l.amount) AS balance, "
+            + "MAX(l.created_at) AS taken_at "
+            + "FROM balance_ledger l LEFT JOIN balance_snapshot_latest s ON s.account_id = l.account_id "
+            + "WHERE l.id > COALESCE(s.ledger_id, 0) "
+            + "GROUP BY l.account_id HAVING COUNT(*) >= ?), "
+            + "history AS (INSERT INTO balance_snapshot (account_id, ledger_id, balance, taken_at) "
+            + "SELECT account_id, ledger_id, balance, taken_at FROM taken) "
+            + "INSERT INTO balance_snapshot_latest (account_id, ledger_id, balance, taken_at) "
+            + "SELECT account_id, ledger_id, balance, taken_at FROM taken "
+            + "ON CONFLICT (account_id) DO UPDATE SET ledger_id = EXCLUDED.ledger_id, "
+            + "balance = EXCLUDED.balance, taken_at = EXCLUDED.taken_at";
+
+    private static final String PRUNE_SNAPSHOTS =
+            "DELETE FROM balance_snapshot WHERE taken_at < LOCALTIMESTAMP - make_interval(secs => ?)";
+
+    private static final String BALANCE_AS_OF = "WITH snap AS ("
+            + "SELECT ledger_id, balance FROM ("
+            + "SELECT ledger_id, balance, taken_at FROM balance_snapshot WHERE account_id = ? "
+            + "UNION ALL SELECT ledger_id, balance, taken_at FROM balance_snapshot_latest WHERE account_id = ?) s "
+            + "WHERE taken_at <= ? ORDER BY ledger_id DESC LIMIT 1) "
+            + "SELECT COALESCE((SELECT balance FROM snap), 0) + COALESCE(("
+            + "SELECT SUM(l.amount) FROM balance_ledger l WHERE l.account_id = a.id AND l.created_at <= ? "
+            + "AND l.id > COALESCE((SELECT ledger_id FROM snap), 0)), 0) "
+            + "FROM account a WHERE a.id = ?";
+
+    private static final String RECONCILE = "SELECT a.id, a.balance, COALESCE(s.balance, 0) + COALESCE(("
+            + "SELECT SUM(l.amount) FROM balance_ledger l "
+            + "WHERE l.account_id = a.id AND l.id > COALESCE(s.ledger_id, 0)), 0) AS ledger_balance "
+            + "FROM account a LEFT JOIN balance_snapshot_latest s ON s.account_id = a.id ORDER BY a.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@code clock_timestamp()} is read at insert time while the account row is locked, so
+     * entries of one account are timestamped in commit order.
+     */
+    public void insertEntries(List<LedgerEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.accountId());
+            ps.setBigDecimal(2, entry.amount());
+        });
+    }
+
+    /**
+     * Checkpoints every account with at least {@code minEntries} ledger rows since its last
+     * snapshot, computing the new balance from that snapshot rather than the full history.
+     * The snapshot is appended to balance_snapshot and replaces the account's row in
+     * balance_snapshot_latest.
+     */
+    public int takeSnapshots(int minEntries) {
+        return jdbcTemplate.update(TAKE_SNAPSHOTS, minEntries);
+    }
+
+    /**
+     * Deletes history snapshots older than {@code retention}. The newest snapshot of each
+     * account survives in balance_snapshot_latest, and the ledger itself is never pruned, so
+     * older balance-as-of queries stay correct and only replay more rows.
+     */
+    public int pruneSnapshots(Duration retention) {
+        return jdbcTemplate.update(PRUNE_SNAPSHOTS, retention.toSeconds());
+    }
+
+    /**
+     * Empty when the account does not exist.
+     */
+    public Optional<BigDecimal> balanceAsOf(Long accountId, LocalDateTime at) {
+        Timestamp timestamp = Timestamp.valueOf(at);
+        return jdbcTemplate.queryForList(BALANCE_AS_OF, BigDecimal.class,
+                accountId, accountId, timestamp, timestamp, accountId).stream().findFirst();
+    }
+
+    /**
+     * Streams every account with its ledger-derived balance. Rows are fetched
+     * {@code fetchSize} at a time through a cursor, which requires an open transaction.
+     */
+    public void streamReconciliation(int fetchSize, RowCallbackHandler handler) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        streaming.query(RECONCILE, handler);
+    }
+
+    public record LedgerEntry(Long accountId, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,13 @@
+package az.kapital.msaccountservice.event;
+
+import az.kapital.msaccountservice.model.Currency;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by {@code AccountService} inside the updating transaction, once per applied delta.
+ * {@code balance} is the account balance right after {@code amount} was applied.
+ */
+public record BalanceChangedEvent(Long accountId, Long userId, Currency currency, BigDecimal amount,
+                                  BigDecimal balance) {
+}
@@ -0,0 +1,8 @@
+package az.kapital.msaccountservice.exception;
+
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(String message) {
+        super(message);
+    }
+}
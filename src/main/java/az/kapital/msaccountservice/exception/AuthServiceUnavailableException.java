@@ -0,0 +1,8 @@
+package az.kapital.msaccountservice.exception;
+
+public class AuthServiceUnavailableException extends RuntimeException {
+
+    public AuthServiceUnavailableException(String message) {
+        super(message);
+    }
+}
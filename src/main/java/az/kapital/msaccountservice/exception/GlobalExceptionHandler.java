@@ -2,6 +2,8 @@ package az.kapital.msaccountservice.exception;
 
 import az.kapital.msaccountservice.model.ErrorCode;
 import az.kapital.msaccountservice.model.GlobalResponse;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -46,6 +48,17 @@ public class GlobalExceptionHandler {
 
     }
 
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<GlobalResponse> accountNotFoundExceptionHandler(AccountNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(GlobalResponse.builder()
+                .id(UUID.randomUUID())
+                .error_code(ErrorCode.NOT_FOUND)
+                .error_message(ex.getLocalizedMessage())
+                .time(LocalDateTime.now())
+                .build());
+
+    }
+
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity<GlobalResponse> invalidTokenExceptionHandler(InvalidTokenException ex) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(GlobalResponse.builder()
@@ -56,4 +69,59 @@ public class GlobalExceptionHandler {
                 .build());
 
     }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<GlobalResponse> invalidRequestExceptionHandler(InvalidRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GlobalResponse.builder()
+                .id(UUID.randomUUID())
+                .error_code(ErrorCode.INVALID_REQUEST)
+                .error_message(ex.getLocalizedMessage())
+                .time(LocalDateTime.now())
+                .build());
+
+    }
+
+    /**
+     * The key was already used for an update with a different userId, currency or amount.
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<GlobalResponse> idempotencyKeyConflictExceptionHandler(IdempotencyKeyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(GlobalResponse.builder()
+                .id(UUID.randomUUID())
+                .error_code(ErrorCode.IDEMPOTENCY_KEY_REUSED)
+                .error_message(ex.getLocalizedMessage())
+                .time(LocalDateTime.now())
+                .build());
+
+    }
+
+    /**
+     * Lock timeouts, NOWAIT/SKIP LOCKED misses, deadlocks and serialization failures that were
+     * still failing after the retries. The request changed nothing and can be sent again.
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<GlobalResponse> lockFailureExceptionHandler(PessimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(GlobalResponse.builder()
+                        .id(UUID.randomUUID())
+                        .error_code(ErrorCode.ACCOUNT_BUSY)
+                        .error_message("Account is busy, please retry.")
+                        .time(LocalDateTime.now())
+                        .build());
+
+    }
+
+    @ExceptionHandler(AuthServiceUnavailableException.class)
+    public ResponseEntity<GlobalResponse> authServiceUnavailableExceptionHandler(AuthServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(GlobalResponse.builder()
+                        .id(UUID.randomUUID())
+                        .error_code(ErrorCode.AUTH_UNAVAILABLE)
+                        .error_message(ex.getLocalizedMessage())
+                        .time(LocalDateTime.now())
+                        .build());
+
+    }
 }
@@ -0,0 +1,8 @@
+package az.kapital.msaccountservice.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package az.kapital.msaccountservice.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,143 @@
+package az.kapital.msaccountservice.export;
+
+import az.kapital.msaccountservice.config.ExportProperties;
+import az.kapital.msaccountservice.domain.repository.AccountJdbcRepository;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes every account straight from the database cursor to the output stream, one row at a
+ * time, so memory use is the same for a hundred accounts or a hundred million.
+ */
+@Service
+public class AccountExportService {
+
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final ExportProperties properties;
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+
+    public AccountExportService(AccountJdbcRepository accountJdbcRepository,
+                                ExportProperties properties,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.accountJdbcRepository = accountJdbcRepository;
+        this.properties = properties;
+        this.jsonFactory = objectMapper.getFactory();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the number of rows written. The caller owns {@code out} and closes it.
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, Currency currency, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OutputStream buffered = new BufferedOutputStream(out, properties.getBufferSize());
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(buffered) : new NdjsonRowWriter(buffered);
+        long[] rows = new long[1];
+        try {
+            accountJdbcRepository.streamAccounts(currency, properties.getFetchSize(), rs -> {
+                try {
+                    writer.write(rs);
+                    rows[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            sample.stop(Timer.builder("account.export")
+                    .description("Duration of a full account export")
+                    .tag("format", format.getExtension())
+                    .register(meterRegistry));
+        }
+        return rows[0];
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write("account_id,user_id,currency,balance\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong("id")));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong("user_id")));
+            writer.write(',');
+            writer.write(rs.getString("currency"));
+            writer.write(',');
+            writer.write(rs.getBigDecimal("balance").toPlainString());
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = jsonFactory.createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            BigDecimal balance = rs.getBigDecimal("balance");
+            generator.writeStartObject();
+            generator.writeNumberField("accountId", rs.getLong("id"));
+            generator.writeNumberField("userId", rs.getLong("user_id"));
+            generator.writeStringField("currency", rs.getString("currency"));
+            generator.writeNumberField("balance", balance);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (generator.getOutputContext().getEntryCount() > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+}
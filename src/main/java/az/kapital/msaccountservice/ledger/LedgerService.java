@@ -0,0 +1,104 @@
+package az.kapital.msaccountservice.ledger;
+
+import az.kapital.msaccountservice.config.LedgerProperties;
+import az.kapital.msaccountservice.domain.repository.LedgerRepository;
+import az.kapital.msaccountservice.exception.AccountNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads history back out of the ledger. The account row stays the source of truth for the
+ * current balance; the ledger explains how it got there and periodic snapshots keep
+ * historical queries from replaying it from the start.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+
+    private final LedgerRepository ledgerRepository;
+    private final LedgerProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter snapshots;
+    private final AtomicLong lastMismatches = new AtomicLong();
+    private final Timer reconciliationTimer;
+
+    public LedgerService(LedgerRepository ledgerRepository,
+                         LedgerProperties properties,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.ledgerRepository = ledgerRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshots = Counter.builder("account.ledger.snapshots")
+                .description("Balance snapshots written")
+                .register(meterRegistry);
+        this.reconciliationTimer = Timer.builder("account.ledger.reconciliation")
+                .description("Duration of a full ledger reconciliation run")
+                .register(meterRegistry);
+        meterRegistry.gauge("account.ledger.reconciliation.mismatches", lastMismatches);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAsOf(Long accountId, LocalDateTime at) {
+        return ledgerRepository.balanceAsOf(accountId, at)
+                .orElseThrow(() -> new AccountNotFoundException("Account " + accountId + " not found."));
+    }
+
+    @Transactional
+    @Scheduled(cron = "${account.ledger.snapshot-cron:0 */15 * * * *}")
+    public void takeSnapshots() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int taken = ledgerRepository.takeSnapshots(properties.getSnapshotMinEntries());
+        snapshots.increment(taken);
+        if (taken > 0) {
+            log.info("Took {} balance snapshots", taken);
+        }
+        int pruned = ledgerRepository.pruneSnapshots(properties.getSnapshotRetention());
+        if (pruned > 0) {
+            log.info("Pruned {} balance snapshots older than {}", pruned, properties.getSnapshotRetention());
+        }
+    }
+
+    /**
+     * Compares every account balance with the balance derived from its ledger. Rows are
+     * streamed through a cursor and checked one at a time, so memory use does not grow with
+     * the number of accounts.
+     */
+    @Scheduled(cron = "${account.ledger.reconciliation-cron:0 30 3 * * *}")
+    public long reconcile() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long[] checked = new long[1];
+        long[] mismatches = new long[1];
+        reconciliationTimer.record(() -> readOnlyTransaction.executeWithoutResult(status ->
+                ledgerRepository.streamReconciliation(properties.getReconciliationFetchSize(), rs -> {
+                    checked[0]++;
+                    BigDecimal balance = rs.getBigDecimal("balance");
+                    BigDecimal ledgerBalance = rs.getBigDecimal("ledger_balance");
+                    if (balance.compareTo(ledgerBalance) != 0) {
+                        if (++mismatches[0] <= properties.getReconciliationLogLimit()) {
+                            log.warn("Ledger mismatch for account {}: balance {}, ledger {}",
+                                    rs.getLong("id"), balance, ledgerBalance);
+                        }
+                    }
+                })));
+        lastMismatches.set(mismatches[0]);
+        log.info("Ledger reconciliation checked {} accounts, {} mismatches", checked[0], mismatches[0]);
+        return mismatches[0];
+    }
+}
@@ -0,0 +1,72 @@
+package az.kapital.msaccountservice.ledger;
+
+import az.kapital.msaccountservice.config.LedgerProperties;
+import az.kapital.msaccountservice.domain.repository.LedgerRepository;
+import az.kapital.msaccountservice.domain.repository.LedgerRepository.LedgerEntry;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every balance delta to balance_ledger. Entries of one transaction are collected
+ * and written as a single JDBC batch just before commit, while the account rows are still
+ * locked; if the insert fails the balance change rolls back with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerWriter {
+
+    private final LedgerRepository ledgerRepository;
+    private final LedgerProperties properties;
+    private final Object transactionKey = new Object();
+
+    @EventListener
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LedgerEntry entry = new LedgerEntry(event.accountId(), event.amount());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ledgerRepository.insertEntries(List.of(entry));
+            return;
+        }
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(transactionKey);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(transactionKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(entry);
+    }
+
+    private final class PendingEntries implements TransactionSynchronization {
+
+        private final List<LedgerEntry> entries = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(transactionKey);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(transactionKey, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            ledgerRepository.insertEntries(entries);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+}
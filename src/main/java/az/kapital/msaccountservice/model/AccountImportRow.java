@@ -0,0 +1,19 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountImportRow {
+    private Long userId;
+    private String username;
+    private Currency currency;
+    private BigDecimal balance;
+}
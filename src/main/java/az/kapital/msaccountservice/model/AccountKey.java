@@ -0,0 +1,19 @@
+package az.kapital.msaccountservice.model;
+
+import java.util.Comparator;
+
+/**
+ * Identifies an account row. The natural order is the canonical lock order: every code path
+ * that locks more than one account must acquire the rows sorted by this comparator.
+ */
+public record AccountKey(Long userId, Currency currency) implements Comparable<AccountKey> {
+
+    private static final Comparator<AccountKey> LOCK_ORDER = Comparator
+            .comparing(AccountKey::userId)
+            .thenComparing(key -> key.currency().name());
+
+    @Override
+    public int compareTo(AccountKey other) {
+        return LOCK_ORDER.compare(this, other);
+    }
+}
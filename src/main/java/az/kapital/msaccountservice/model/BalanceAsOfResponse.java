@@ -0,0 +1,19 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceAsOfResponse {
+    private Long accountId;
+    private LocalDateTime at;
+    private BigDecimal balance;
+}
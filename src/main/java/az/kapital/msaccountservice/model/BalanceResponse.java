@@ -0,0 +1,24 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceResponse {
+    private Currency currency;
+    private BigDecimal balance;
+
+    /**
+     * Used by the JPQL constructor expression, which passes the converted entity attribute.
+     */
+    public BalanceResponse(Currency currency, Money balance) {
+        this(currency, balance.toBigDecimal());
+    }
+}
@@ -21,4 +21,14 @@ public class BalanceUpdateRequest {
 
     @NotNull
     private BigDecimal amount;
+
+    /**
+     * Optional client-chosen key; a retried request with the same key returns the original
+     * response instead of applying the amount again.
+     */
+    private String idempotencyKey;
+
+    public BalanceUpdateRequest(Long userId, Currency currency, BigDecimal amount) {
+        this(userId, currency, amount, null);
+    }
 }
\ No newline at end of file
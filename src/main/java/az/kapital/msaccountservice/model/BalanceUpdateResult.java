@@ -0,0 +1,23 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceUpdateResult {
+    private int index;
+    private Long accountId;
+    private Long userId;
+    private Currency currency;
+    private BigDecimal amount;
+    private BalanceUpdateStatus status;
+    private BigDecimal balance;
+    private String error;
+}
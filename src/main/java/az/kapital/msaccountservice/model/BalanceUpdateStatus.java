@@ -0,0 +1,6 @@
+package az.kapital.msaccountservice.model;
+
+public enum BalanceUpdateStatus {
+
+    APPLIED, REPLAYED, INSUFFICIENT_FUNDS, ACCOUNT_NOT_FOUND, INVALID_REQUEST, IDEMPOTENCY_CONFLICT
+}
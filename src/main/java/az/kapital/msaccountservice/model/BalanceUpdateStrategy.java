@@ -0,0 +1,15 @@
+package az.kapital.msaccountservice.model;
+
+public enum BalanceUpdateStrategy {
+
+    /**
+     * Single conditional {@code UPDATE ... RETURNING}; the row lock is held only for that statement
+     * and the commit.
+     */
+    ATOMIC,
+
+    /**
+     * {@code SELECT ... FOR UPDATE}, check in Java, then write the entity back.
+     */
+    LOCKING
+}
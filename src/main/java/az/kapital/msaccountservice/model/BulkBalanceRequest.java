@@ -0,0 +1,22 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkBalanceRequest {
+
+    private List<Long> userIds;
+
+    /**
+     * Currencies to return; all of them when empty.
+     */
+    private List<Currency> currencies;
+}
@@ -0,0 +1,21 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Balances keyed by userId and currency, e.g. {@code {"42": {"USD": 10.5000}}}. Users without
+ * an account in the requested currencies are left out.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkBalanceResponse {
+
+    private Map<Long, Map<Currency, Money>> balances;
+}
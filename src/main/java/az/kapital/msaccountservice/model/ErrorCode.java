@@ -9,4 +9,12 @@ public final class ErrorCode {
     public static final String INVALID_CREDENTIALS = "invalid_credentials";
 
     public static final String NOT_ALLOWED = "not_allowed";
+
+    public static final String INVALID_REQUEST = "invalid_request";
+
+    public static final String ACCOUNT_BUSY = "account_busy";
+
+    public static final String AUTH_UNAVAILABLE = "auth_unavailable";
+
+    public static final String IDEMPOTENCY_KEY_REUSED = "idempotency_key_reused";
 }
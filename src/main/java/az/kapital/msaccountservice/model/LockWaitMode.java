@@ -0,0 +1,20 @@
+package az.kapital.msaccountservice.model;
+
+public enum LockWaitMode {
+
+    /**
+     * {@code SELECT ... FOR UPDATE}; waits for the row up to {@code account.balance-update.lock.timeout}.
+     */
+    WAIT,
+
+    /**
+     * {@code SELECT ... FOR UPDATE NOWAIT}; fails at once when another transaction holds the row.
+     */
+    NOWAIT,
+
+    /**
+     * {@code SELECT ... FOR UPDATE SKIP LOCKED}; a held row reads as absent and is reported as
+     * unavailable rather than missing.
+     */
+    SKIP_LOCKED
+}
@@ -0,0 +1,211 @@
+package az.kapital.msaccountservice.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+
+/**
+ * Fixed-point amount held as a {@code long} count of 1/10&nbsp;000 units, the scale of the
+ * {@code DECIMAL(19, 4)} balance columns. Every currency is stored at that scale, so there is
+ * one {@link #SCALE} rather than one per {@link Currency}. Arithmetic is exact and throws
+ * {@link ArithmeticException} on overflow instead of wrapping; the representable range is
+ * ±922&nbsp;337&nbsp;203&nbsp;685&nbsp;477.5807, slightly below what the column allows.
+ * <p>
+ * Adding, comparing and formatting work on the {@code long} alone; {@link BigDecimal} only
+ * appears when converting at the JDBC and API boundaries.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long FACTOR = 10_000L;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Exact conversion; throws {@link ArithmeticException} when {@code value} has non-zero
+     * digits beyond {@link #SCALE} decimal places or does not fit.
+     */
+    public static Money of(BigDecimal value) {
+        return ofMinor(value.movePointRight(SCALE).longValueExact());
+    }
+
+    public static boolean isRepresentable(BigDecimal value) {
+        try {
+            of(value);
+            return true;
+        } catch (ArithmeticException ex) {
+            return false;
+        }
+    }
+
+    public static Money parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code -12.5} without creating intermediate objects.
+     * Exponents are not accepted; digits beyond {@link #SCALE} decimal places must be zero.
+     */
+    public static Money parse(CharSequence text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int fractionDigits = -1;
+        boolean digits = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a plain decimal amount: " + text.subSequence(offset, end));
+            }
+            digits = true;
+            if (fractionDigits >= SCALE) {
+                if (c != '0') {
+                    throw new ArithmeticException("More than " + SCALE + " decimal places: "
+                            + text.subSequence(offset, end));
+                }
+                continue;
+            }
+            // Accumulate negatively so Long.MIN_VALUE parses without overflowing.
+            units = Math.subtractExact(Math.multiplyExact(units, 10), c - '0');
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Not a plain decimal amount: " + text.subSequence(offset, end));
+        }
+        for (int d = Math.max(fractionDigits, 0); d < SCALE; d++) {
+            units = Math.multiplyExact(units, 10);
+        }
+        return ofMinor(negative ? units : Math.negateExact(units));
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Appends the amount as a plain decimal with exactly {@link #SCALE} places, e.g.
+     * {@code -0.0500}.
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        long whole = minorUnits / FACTOR;
+        long fraction = Math.abs(minorUnits % FACTOR);
+        if (minorUnits < 0 && whole == 0) {
+            out.append('-');
+        }
+        out.append(whole).append('.');
+        for (long pad = FACTOR / 10; pad > 1 && fraction < pad; pad /= 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Writes a JSON number with four decimals, the same shape the BigDecimal fields produce for
+     * values read from the database.
+     */
+    public static final class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    /**
+     * Accepts JSON numbers and numeric strings, parsed straight from the parser's buffer.
+     */
+    public static final class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return parse(CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength()));
+            } catch (ArithmeticException | NumberFormatException ex) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransferRequest {
+
+    private Long fromUserId;
+
+    private Currency fromCurrency;
+
+    private Long toUserId;
+
+    private Currency toCurrency;
+
+    /**
+     * Debited from the source account, in the source currency.
+     */
+    private BigDecimal amount;
+
+    /**
+     * Units of the target currency per unit of the source currency; required when the
+     * currencies differ and ignored otherwise.
+     */
+    private BigDecimal fxRate;
+}
@@ -0,0 +1,20 @@
+package az.kapital.msaccountservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransferResponse {
+    private AccountResponse from;
+    private AccountResponse to;
+    private BigDecimal debited;
+    private BigDecimal credited;
+    private BigDecimal fxRate;
+}
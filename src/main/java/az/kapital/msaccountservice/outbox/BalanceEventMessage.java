@@ -0,0 +1,20 @@
+package az.kapital.msaccountservice.outbox;
+
+import az.kapital.msaccountservice.domain.entity.BalanceOutboxEntity;
+import az.kapital.msaccountservice.model.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What consumers receive for each balance change. {@code id} increases per account in
+ * commit order, so a consumer can drop redelivered messages it has already seen.
+ */
+public record BalanceEventMessage(Long id, Long accountId, Long userId, Currency currency, BigDecimal amount,
+                                  BigDecimal balance, LocalDateTime createdAt) {
+
+    public static BalanceEventMessage of(BalanceOutboxEntity entity) {
+        return new BalanceEventMessage(entity.getId(), entity.getAccountId(), entity.getUserId(),
+                entity.getCurrency(), entity.getAmount(), entity.getBalance(), entity.getCreatedAt());
+    }
+}
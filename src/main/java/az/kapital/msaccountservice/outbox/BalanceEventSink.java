@@ -0,0 +1,12 @@
+package az.kapital.msaccountservice.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed balance events. {@link #publish} receives messages in outbox order
+ * and must throw if any of them was not accepted; the whole batch is then retried.
+ */
+public interface BalanceEventSink {
+
+    void publish(List<BalanceEventMessage> messages);
+}
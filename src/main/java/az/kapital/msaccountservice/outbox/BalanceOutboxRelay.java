@@ -0,0 +1,87 @@
+package az.kapital.msaccountservice.outbox;
+
+import az.kapital.msaccountservice.config.OutboxProperties;
+import az.kapital.msaccountservice.domain.entity.BalanceOutboxEntity;
+import az.kapital.msaccountservice.domain.repository.BalanceOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves outbox rows to the {@link BalanceEventSink}. Each batch is read, published and
+ * deleted in one transaction: a failure anywhere rolls back the delete and the batch is sent
+ * again on the next run, so delivery is at least once. Batches go out in id order from a
+ * single node, which keeps the events of each account in commit order.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.outbox", name = "enabled", havingValue = "true")
+public class BalanceOutboxRelay {
+
+    static final long RELAY_LOCK_ID = 7_300_148L;
+
+    private final BalanceOutboxRepository repository;
+    private final BalanceEventSink sink;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer batchTimer;
+
+    public BalanceOutboxRelay(BalanceOutboxRepository repository,
+                              BalanceEventSink sink,
+                              OutboxProperties properties,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.sink = sink;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.published = Counter.builder("account.outbox.published")
+                .description("Balance events handed to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("account.outbox.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("account.outbox.batch")
+                .description("Time to read, publish and delete one outbox batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains full batches back to back and stops at the first partial one.
+     */
+    @Scheduled(fixedDelayString = "${account.outbox.flush-interval-ms:1000}")
+    public void flush() {
+        try {
+            int relayed;
+            do {
+                relayed = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            } while (relayed == properties.getBatchSize());
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("Balance outbox relay failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        if (!repository.tryRelayLock(RELAY_LOCK_ID)) {
+            return 0;
+        }
+        List<BalanceOutboxEntity> batch = repository.findOldest(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        sink.publish(batch.stream().map(BalanceEventMessage::of).toList());
+        repository.deleteByIds(batch.stream().map(BalanceOutboxEntity::getId).toList());
+        published.increment(batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,29 @@
+package az.kapital.msaccountservice.outbox;
+
+import az.kapital.msaccountservice.domain.entity.BalanceOutboxEntity;
+import az.kapital.msaccountservice.domain.repository.BalanceOutboxRepository;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes every balance change to balance_outbox inside the updating transaction, so the
+ * event exists exactly when the change does.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.outbox", name = "enabled", havingValue = "true")
+public class BalanceOutboxWriter {
+
+    private final BalanceOutboxRepository repository;
+
+    @EventListener
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        repository.save(new BalanceOutboxEntity(null, event.accountId(), event.userId(), event.currency(),
+                event.amount(), event.balance(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,18 @@
+package az.kapital.msaccountservice.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryBalanceEventSink implements BalanceEventSink {
+
+    private final List<BalanceEventMessage> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<BalanceEventMessage> batch) {
+        messages.addAll(batch);
+    }
+
+    public synchronized List<BalanceEventMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+}
@@ -0,0 +1,250 @@
+package az.kapital.msaccountservice.provisioning;
+
+import az.kapital.msaccountservice.cache.BalanceCache;
+import az.kapital.msaccountservice.config.ImportProperties;
+import az.kapital.msaccountservice.config.LedgerProperties;
+import az.kapital.msaccountservice.domain.repository.AccountJdbcRepository;
+import az.kapital.msaccountservice.model.AccountImportReport;
+import az.kapital.msaccountservice.model.AccountImportRow;
+import az.kapital.msaccountservice.model.AccountKey;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.ExportFormat;
+import az.kapital.msaccountservice.model.ImportRowError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates users and accounts from an uploaded CSV or NDJSON stream. The input is read line by
+ * line and written in chunks of {@code account.import.chunk-size}, each in its own
+ * transaction with a handful of set-based statements, so memory is bounded by one chunk and
+ * the capped error list. Rows that cannot be imported are reported with their line number;
+ * the rest of the chunk is still written.
+ */
+@Slf4j
+@Service
+public class AccountImportService {
+
+    static final String CSV_HEADER = "user_id,username,currency,balance";
+
+    private static final int MAX_BALANCE_SCALE = 4;
+    private static final int MAX_USERNAME_LENGTH = 255;
+
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final ImportProperties properties;
+    private final LedgerProperties ledgerProperties;
+    private final BalanceCache balanceCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public AccountImportService(AccountJdbcRepository accountJdbcRepository,
+                                ImportProperties properties,
+                                LedgerProperties ledgerProperties,
+                                BalanceCache balanceCache,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.accountJdbcRepository = accountJdbcRepository;
+        this.properties = properties;
+        this.ledgerProperties = ledgerProperties;
+        this.balanceCache = balanceCache;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importedRows = rows(meterRegistry, "imported");
+        this.failedRows = rows(meterRegistry, "failed");
+    }
+
+    public AccountImportReport importAccounts(ExportFormat format, InputStream in) throws IOException {
+        Report report = new Report(properties.getMaxReportedErrors());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<ParsedRow> chunk = new ArrayList<>(properties.getChunkSize());
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == ExportFormat.CSV && lineNumber == 1
+                    && line.trim().equalsIgnoreCase(CSV_HEADER))) {
+                continue;
+            }
+            report.rows++;
+            AccountImportRow row;
+            try {
+                row = format == ExportFormat.CSV ? parseCsv(line)
+                        : objectMapper.readValue(line, AccountImportRow.class);
+            } catch (JsonProcessingException ex) {
+                report.fail(lineNumber, "Unreadable row: " + ex.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException ex) {
+                report.fail(lineNumber, "Unreadable row: " + ex.getMessage());
+                continue;
+            }
+            String error = validate(row);
+            if (error != null) {
+                report.fail(lineNumber, error);
+                continue;
+            }
+            chunk.add(new ParsedRow(lineNumber, row));
+            if (chunk.size() >= properties.getChunkSize()) {
+                writeChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+        importedRows.increment(report.imported);
+        failedRows.increment(report.failed);
+        log.info("Account import finished: {} rows, {} imported, {} failed", report.rows, report.imported, report.failed);
+        return report.toResponse();
+    }
+
+    private void writeChunk(List<ParsedRow> chunk, Report report) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> insertChunk(chunk));
+        } catch (RuntimeException ex) {
+            log.warn("Import chunk of {} rows starting at line {} failed: {}",
+                    chunk.size(), chunk.get(0).line(), ex.getMessage());
+            chunk.forEach(row -> report.fail(row.line(), "Chunk failed: " + ex.getMessage()));
+            return;
+        }
+        result.rejected().forEach(error -> report.fail(error.getLine(), error.getMessage()));
+        report.imported += result.inserted().size();
+        result.inserted().stream().map(row -> row.row().getUserId()).distinct().forEach(balanceCache::evict);
+    }
+
+    private ChunkResult insertChunk(List<ParsedRow> chunk) {
+        List<ImportRowError> rejected = new ArrayList<>();
+        Map<Long, String> usernames = new LinkedHashMap<>();
+        List<ParsedRow> candidates = new ArrayList<>(chunk.size());
+        for (ParsedRow parsed : chunk) {
+            AccountImportRow row = parsed.row();
+            String previous = usernames.putIfAbsent(row.getUserId(), row.getUsername());
+            if (previous != null && !previous.equals(row.getUsername())) {
+                rejected.add(new ImportRowError(parsed.line(), String.format(
+                        "User %d is given username %s earlier in the file.", row.getUserId(), previous)));
+            } else {
+                candidates.add(parsed);
+            }
+        }
+
+        accountJdbcRepository.insertUsers(new ArrayList<>(usernames.keySet()), new ArrayList<>(usernames.values()));
+        Map<Long, String> stored = accountJdbcRepository.findUsernames(usernames.keySet());
+        Set<AccountKey> existing = new LinkedHashSet<>(accountJdbcRepository.findAccountKeys(usernames.keySet()));
+
+        List<ParsedRow> inserted = new ArrayList<>(candidates.size());
+        List<Long> userIds = new ArrayList<>(candidates.size());
+        List<Currency> currencies = new ArrayList<>(candidates.size());
+        List<BigDecimal> balances = new ArrayList<>(candidates.size());
+        for (ParsedRow parsed : candidates) {
+            AccountImportRow row = parsed.row();
+            String storedUsername = stored.get(row.getUserId());
+            if (!row.getUsername().equals(storedUsername)) {
+                rejected.add(new ImportRowError(parsed.line(), storedUsername == null
+                        ? String.format("Username %s already belongs to another user.", row.getUsername())
+                        : String.format("User %d is already registered as %s.", row.getUserId(), storedUsername)));
+            } else if (!existing.add(new AccountKey(row.getUserId(), row.getCurrency()))) {
+                rejected.add(new ImportRowError(parsed.line(), String.format(
+                        "User %d already has a %s account.", row.getUserId(), row.getCurrency())));
+            } else {
+                inserted.add(parsed);
+                userIds.add(row.getUserId());
+                currencies.add(row.getCurrency());
+                balances.add(row.getBalance());
+            }
+        }
+        if (!inserted.isEmpty()) {
+            accountJdbcRepository.insertAccounts(userIds, currencies, balances, ledgerProperties.isEnabled());
+        }
+        return new ChunkResult(inserted, rejected);
+    }
+
+    private static AccountImportRow parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("expected 4 fields (" + CSV_HEADER + "), got " + fields.length);
+        }
+        return new AccountImportRow(
+                fields[0].isBlank() ? null : Long.valueOf(fields[0].trim()),
+                fields[1].trim(),
+                fields[2].isBlank() ? null : Currency.valueOf(fields[2].trim()),
+                fields[3].isBlank() ? null : new BigDecimal(fields[3].trim()));
+    }
+
+    private static String validate(AccountImportRow row) {
+        if (row.getUserId() == null || row.getUsername() == null || row.getUsername().isBlank()
+                || row.getCurrency() == null || row.getBalance() == null) {
+            return "userId, username, currency and balance are required.";
+        }
+        if (row.getUserId() <= 0) {
+            return "userId must be positive.";
+        }
+        if (row.getUsername().length() > MAX_USERNAME_LENGTH) {
+            return "username is longer than " + MAX_USERNAME_LENGTH + " characters.";
+        }
+        if (row.getBalance().signum() < 0) {
+            return "balance must not be negative.";
+        }
+        if (row.getBalance().stripTrailingZeros().scale() > MAX_BALANCE_SCALE) {
+            return "balance has more than " + MAX_BALANCE_SCALE + " decimal places.";
+        }
+        return null;
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("account.import.rows")
+                .description("Rows processed by the bulk account import")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record ParsedRow(long line, AccountImportRow row) {
+    }
+
+    private record ChunkResult(List<ParsedRow> inserted, List<ImportRowError> rejected) {
+    }
+
+    private static final class Report {
+
+        private final int maxErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowError(line, message));
+            }
+        }
+
+        private AccountImportReport toResponse() {
+            return new AccountImportReport(rows, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
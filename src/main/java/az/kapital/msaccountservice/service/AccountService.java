@@ -1,46 +1,84 @@
 package az.kapital.msaccountservice.service;
 
-import az.kapital.msaccountservice.client.AuthServiceClient;
+import az.kapital.msaccountservice.cache.BalanceCache;
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
 import az.kapital.msaccountservice.domain.entity.AccountEntity;
-import az.kapital.msaccountservice.domain.entity.UserEntity;
+import az.kapital.msaccountservice.domain.entity.IdempotencyRecordEntity;
+import az.kapital.msaccountservice.domain.projection.UpdatedBalanceView;
 import az.kapital.msaccountservice.domain.repository.AccountRepository;
-import az.kapital.msaccountservice.domain.repository.UserRepository;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
 import az.kapital.msaccountservice.exception.ForbiddenAccessException;
 import az.kapital.msaccountservice.exception.InsufficientFundsException;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
 import az.kapital.msaccountservice.exception.InvalidTokenException;
 import az.kapital.msaccountservice.exception.UserNotFoundException;
+import az.kapital.msaccountservice.model.AccountKey;
 import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.BalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BalanceUpdateResult;
+import az.kapital.msaccountservice.model.BalanceUpdateStatus;
+import az.kapital.msaccountservice.model.BalanceUpdateStrategy;
 import az.kapital.msaccountservice.model.Currency;
-import az.kapital.msaccountservice.model.TokenValidationRequest;
+import az.kapital.msaccountservice.model.LockWaitMode;
+import az.kapital.msaccountservice.model.Money;
+import az.kapital.msaccountservice.model.TransferRequest;
+import az.kapital.msaccountservice.model.TransferResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
-    private final UserRepository userRepository;
-    private final AuthServiceClient authServiceClient;
+    private final UserIdResolver userIdResolver;
+    private final TokenValidationService tokenValidationService;
+    private final BalanceUpdateProperties balanceUpdateProperties;
+    private final IdempotencyStore idempotencyStore;
+    private final BalanceCache balanceCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Map<LockWaitMode, Map<String, Timer>> lockTimers = new ConcurrentHashMap<>();
 
-    @Transactional(readOnly = true)
-    public List<AccountEntity> getBalanceForUser(Long userId, String authorizationHeader) {
+    /**
+     * Not transactional: the token is validated against ms-auth-service before any connection
+     * or transaction permit is taken. Only the balance read runs in a transaction; uncached it
+     * may go to a replica, but cache misses are loaded from the primary.
+     */
+    public List<BalanceResponse> getBalanceForUser(Long userId, String authorizationHeader) {
         String token = extractToken(authorizationHeader);
-        String authenticatedUsername = authServiceClient.validateToken(new TokenValidationRequest(token));
+        String authenticatedUsername = tokenValidationService.resolveUsername(token);
 
-        Long requesterId = userRepository.findByUsername(authenticatedUsername)
-                .map(UserEntity::getId)
+        Long requesterId = userIdResolver.resolve(authenticatedUsername)
                 .orElseThrow(() -> new UserNotFoundException("Requester not found in local DB."));
 
         if (!requesterId.equals(userId)) {
             throw new ForbiddenAccessException("You are not allowed to view this user’s balance.");
         }
 
-        return accountRepository.findByUserId(userId);
+        if (!balanceCache.isEnabled()) {
+            return accountRepository.findBalancesByUserId(userId);
+        }
+        return balanceCache.get(userId, () -> accountRepository.findBalancesByUserIdOnPrimary(userId));
     }
 
     private String extractToken(String authorizationHeader) {
@@ -52,28 +90,347 @@ public class AccountService {
 
     @Transactional
     public AccountResponse updateBalance(Long userId, Currency currency, BigDecimal amount) {
+        return updateBalance(userId, currency, amount, null);
+    }
 
-        AccountEntity account = accountRepository
-                .findByUserIdAndCurrencyWithLock(userId, currency)
+    /**
+     * When {@code idempotencyKey} is set it is recorded in the same transaction as the balance
+     * change. A concurrent duplicate waits on the key lock until that transaction ends, then
+     * replays the recorded response. {@code amount} is checked against {@link Money#SCALE} for
+     * both strategies, so the ATOMIC path cannot leave the rounding to the column.
+     */
+    @Transactional
+    public AccountResponse updateBalance(Long userId, Currency currency, BigDecimal amount, String idempotencyKey) {
+        Money delta = toMoney(amount);
+        if (idempotencyKey != null) {
+            IdempotencyStore.validateKey(idempotencyKey);
+            idempotencyStore.lockKeys(List.of(idempotencyKey));
+            Optional<AccountResponse> replayed = idempotencyStore.find(idempotencyKey, userId, currency, amount);
+            if (replayed.isPresent()) {
+                return replayed.get();
+            }
+        }
+        AccountResponse response = balanceUpdateProperties.getStrategy() == BalanceUpdateStrategy.ATOMIC
+                ? updateBalanceAtomically(userId, currency, amount)
+                : updateBalanceWithLock(userId, currency, amount, delta);
+        if (idempotencyKey != null) {
+            idempotencyStore.record(idempotencyKey, amount, response);
+        }
+        return response;
+    }
+
+    private AccountResponse updateBalanceWithLock(Long userId, Currency currency, BigDecimal amount, Money delta) {
+        applyLockTimeout();
+        AccountEntity account = lock(userId, currency)
                 .orElseThrow(() -> new RuntimeException("Account not found."));
 
-        BigDecimal newBalance = account.getBalance().add(amount);
+        Money current = account.getBalance();
+        Money newBalance = current.plus(delta);
 
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
-            throw new InsufficientFundsException(
-                    String.format("Insufficient funds. Current: %s %s, Tried to spend: %s",
-                            account.getBalance(), currency, amount.negate())
-            );
+        if (newBalance.isNegative()) {
+            throw new InsufficientFundsException(insufficientFundsMessage(current, currency, amount));
         }
 
         account.setBalance(newBalance);
         AccountEntity savedAccount = accountRepository.save(account);
+        BigDecimal balance = savedAccount.getBalance().toBigDecimal();
+        eventPublisher.publishEvent(new BalanceChangedEvent(
+                savedAccount.getId(), userId, currency, amount, balance));
 
         return new AccountResponse(
                 savedAccount.getId(),
                 savedAccount.getUser().getId(),
                 savedAccount.getCurrency(),
-                savedAccount.getBalance()
+                balance
         );
     }
-}
\ No newline at end of file
+
+    private AccountResponse updateBalanceAtomically(Long userId, Currency currency, BigDecimal amount) {
+        Optional<UpdatedBalanceView> updated = accountRepository
+                .addToBalanceIfSufficient(userId, currency.name(), amount);
+        if (updated.isPresent()) {
+            UpdatedBalanceView view = updated.get();
+            eventPublisher.publishEvent(new BalanceChangedEvent(
+                    view.getId(), view.getUserId(), currency, amount, view.getBalance()));
+            return new AccountResponse(view.getId(), view.getUserId(), currency, view.getBalance());
+        }
+
+        AccountEntity account = accountRepository
+                .findByUserIdAndCurrency(userId, currency)
+                .orElseThrow(() -> new RuntimeException("Account not found."));
+        throw new InsufficientFundsException(insufficientFundsMessage(account.getBalance(), currency, amount));
+    }
+
+    /**
+     * Applies the updates in one transaction. Rows are locked once per distinct account in
+     * {@link AccountKey} order so concurrent batches cannot deadlock, then the updates for
+     * each account are applied in request order and the final balance is written once.
+     * A failing item does not roll back the others; its status is reported instead.
+     */
+    @Transactional
+    public List<BalanceUpdateResult> updateBalances(List<BalanceUpdateRequest> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one update.");
+        }
+        if (updates.size() > balanceUpdateProperties.getMaxBatchSize()) {
+            throw new InvalidRequestException(String.format("Batch size %d exceeds the limit of %d.",
+                    updates.size(), balanceUpdateProperties.getMaxBatchSize()));
+        }
+
+        BalanceUpdateResult[] results = new BalanceUpdateResult[updates.size()];
+        List<String> keys = updates.stream()
+                .filter(update -> update != null && update.getIdempotencyKey() != null)
+                .map(BalanceUpdateRequest::getIdempotencyKey)
+                .filter(IdempotencyStore::isValidKey)
+                .toList();
+        idempotencyStore.lockKeys(keys);
+        Map<String, IdempotencyRecordEntity> recorded = idempotencyStore.findAll(keys);
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        Map<Integer, Integer> duplicates = new HashMap<>();
+        Map<AccountKey, List<Integer>> indexesByAccount = new TreeMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            BalanceUpdateRequest update = updates.get(i);
+            if (update == null || update.getUserId() == null || update.getCurrency() == null
+                    || update.getAmount() == null) {
+                results[i] = result(i, update, BalanceUpdateStatus.INVALID_REQUEST, null,
+                        "userId, currency and amount are required.");
+                continue;
+            }
+            if (!Money.isRepresentable(update.getAmount())) {
+                results[i] = result(i, update, BalanceUpdateStatus.INVALID_REQUEST, null,
+                        "amount has more than " + Money.SCALE + " decimal places.");
+                continue;
+            }
+            String idempotencyKey = update.getIdempotencyKey();
+            if (idempotencyKey != null) {
+                if (!IdempotencyStore.isValidKey(idempotencyKey)) {
+                    results[i] = result(i, update, BalanceUpdateStatus.INVALID_REQUEST, null,
+                            IdempotencyStore.INVALID_KEY_MESSAGE);
+                    continue;
+                }
+                IdempotencyRecordEntity replayed = recorded.get(idempotencyKey);
+                if (replayed != null) {
+                    if (!IdempotencyStore.matches(replayed, update.getUserId(), update.getCurrency(), update.getAmount())) {
+                        results[i] = result(i, update, BalanceUpdateStatus.IDEMPOTENCY_CONFLICT, null,
+                                IdempotencyStore.conflict(idempotencyKey).getMessage());
+                        continue;
+                    }
+                    results[i] = result(i, update, BalanceUpdateStatus.REPLAYED, replayed.getBalance(), null);
+                    results[i].setAccountId(replayed.getAccountId());
+                    continue;
+                }
+                Integer first = firstIndexByKey.putIfAbsent(idempotencyKey, i);
+                if (first != null) {
+                    BalanceUpdateRequest original = updates.get(first);
+                    if (!original.getUserId().equals(update.getUserId()) || original.getCurrency() != update.getCurrency()
+                            || original.getAmount().compareTo(update.getAmount()) != 0) {
+                        results[i] = result(i, update, BalanceUpdateStatus.IDEMPOTENCY_CONFLICT, null,
+                                IdempotencyStore.conflict(idempotencyKey).getMessage());
+                        continue;
+                    }
+                    duplicates.put(i, first);
+                    continue;
+                }
+            }
+            indexesByAccount.computeIfAbsent(new AccountKey(update.getUserId(), update.getCurrency()),
+                    key -> new ArrayList<>()).add(i);
+        }
+
+        if (!indexesByAccount.isEmpty()) {
+            applyLockTimeout();
+        }
+        indexesByAccount.forEach((key, indexes) -> {
+            Optional<AccountEntity> locked = lock(key.userId(), key.currency());
+            if (locked.isEmpty()) {
+                indexes.forEach(i -> results[i] = result(i, updates.get(i),
+                        BalanceUpdateStatus.ACCOUNT_NOT_FOUND, null, "Account not found."));
+                return;
+            }
+
+            AccountEntity account = locked.get();
+            Money balance = account.getBalance();
+            for (Integer i : indexes) {
+                BigDecimal amount = updates.get(i).getAmount();
+                Money newBalance = balance.plus(Money.of(amount));
+                if (newBalance.isNegative()) {
+                    results[i] = result(i, updates.get(i), BalanceUpdateStatus.INSUFFICIENT_FUNDS,
+                            balance.toBigDecimal(), insufficientFundsMessage(balance, key.currency(), amount));
+                } else {
+                    balance = newBalance;
+                    BigDecimal applied = balance.toBigDecimal();
+                    results[i] = result(i, updates.get(i), BalanceUpdateStatus.APPLIED, applied, null);
+                    eventPublisher.publishEvent(new BalanceChangedEvent(
+                            account.getId(), key.userId(), key.currency(), amount, applied));
+                }
+                results[i].setAccountId(account.getId());
+            }
+            account.setBalance(balance);
+        });
+
+        duplicates.forEach((i, first) -> {
+            BalanceUpdateResult original = results[first];
+            results[i] = result(i, updates.get(i), original.getStatus() == BalanceUpdateStatus.APPLIED
+                    ? BalanceUpdateStatus.REPLAYED : original.getStatus(), original.getBalance(), original.getError());
+            results[i].setAccountId(original.getAccountId());
+        });
+
+        List<IdempotencyRecordEntity> records = new ArrayList<>();
+        firstIndexByKey.forEach((idempotencyKey, i) -> {
+            BalanceUpdateResult applied = results[i];
+            if (applied.getStatus() == BalanceUpdateStatus.APPLIED) {
+                records.add(IdempotencyStore.toRecord(idempotencyKey, applied.getAmount(), new AccountResponse(
+                        applied.getAccountId(), applied.getUserId(), applied.getCurrency(), applied.getBalance())));
+            }
+        });
+        idempotencyStore.recordAll(records);
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Debits one account and credits another in a single transaction. Both rows are locked in
+     * {@link AccountKey} order, the same order the batch path uses, so transfers running in
+     * opposite directions queue behind each other instead of deadlocking.
+     */
+    @Transactional
+    public TransferResponse transfer(TransferRequest request) {
+        if (request.getFromUserId() == null || request.getFromCurrency() == null || request.getToUserId() == null
+                || request.getToCurrency() == null || request.getAmount() == null) {
+            throw new InvalidRequestException("fromUserId, fromCurrency, toUserId, toCurrency and amount are required.");
+        }
+        BigDecimal amount = request.getAmount();
+        if (amount.signum() <= 0) {
+            throw new InvalidRequestException("amount must be positive.");
+        }
+        Money debit = toMoney(amount);
+        AccountKey from = new AccountKey(request.getFromUserId(), request.getFromCurrency());
+        AccountKey to = new AccountKey(request.getToUserId(), request.getToCurrency());
+        if (from.equals(to)) {
+            throw new InvalidRequestException("Source and target account must differ.");
+        }
+        BigDecimal fxRate = BigDecimal.ONE;
+        if (from.currency() != to.currency()) {
+            fxRate = request.getFxRate();
+            if (fxRate == null || fxRate.signum() <= 0) {
+                throw new InvalidRequestException("A positive fxRate is required to transfer between currencies.");
+            }
+        }
+        BigDecimal credited = amount.multiply(fxRate).setScale(Money.SCALE, RoundingMode.HALF_EVEN);
+        if (credited.signum() == 0) {
+            throw new InvalidRequestException("Transfer amount converts to zero in " + to.currency() + ".");
+        }
+        Money credit = toMoney(credited, "Transfer amount is out of range in " + to.currency() + ".");
+
+        applyLockTimeout();
+        boolean fromFirst = from.compareTo(to) < 0;
+        AccountEntity first = lockAccount(fromFirst ? from : to);
+        AccountEntity second = lockAccount(fromFirst ? to : from);
+        AccountEntity source = fromFirst ? first : second;
+        AccountEntity target = fromFirst ? second : first;
+
+        Money sourceBalance = source.getBalance().minus(debit);
+        if (sourceBalance.isNegative()) {
+            throw new InsufficientFundsException(
+                    insufficientFundsMessage(source.getBalance(), from.currency(), amount.negate()));
+        }
+        source.setBalance(sourceBalance);
+        target.setBalance(target.getBalance().plus(credit));
+        BigDecimal sourceAfter = source.getBalance().toBigDecimal();
+        BigDecimal targetAfter = target.getBalance().toBigDecimal();
+        eventPublisher.publishEvent(new BalanceChangedEvent(
+                source.getId(), from.userId(), from.currency(), amount.negate(), sourceAfter));
+        eventPublisher.publishEvent(new BalanceChangedEvent(
+                target.getId(), to.userId(), to.currency(), credited, targetAfter));
+
+        return new TransferResponse(
+                new AccountResponse(source.getId(), from.userId(), from.currency(), sourceAfter),
+                new AccountResponse(target.getId(), to.userId(), to.currency(), targetAfter),
+                amount, credited, fxRate);
+    }
+
+    private AccountEntity lockAccount(AccountKey key) {
+        return lock(key.userId(), key.currency())
+                .orElseThrow(() -> new RuntimeException("Account not found."));
+    }
+
+    /**
+     * Bounds how long the row locks taken later in this transaction may wait. Only needed in
+     * WAIT mode; NOWAIT and SKIP LOCKED never wait.
+     */
+    private void applyLockTimeout() {
+        BalanceUpdateProperties.Lock lock = balanceUpdateProperties.getLock();
+        if (lock.getMode() == LockWaitMode.WAIT && !lock.getTimeout().isZero()) {
+            accountRepository.setLocalLockTimeout(lock.getTimeout().toMillis() + "ms");
+        }
+    }
+
+    /**
+     * Locks one account in the configured {@link LockWaitMode} and records the time spent.
+     * Empty means the account does not exist. A row that stays held past the timeout, or is
+     * held at all in the fast-fail modes, surfaces as a
+     * {@link PessimisticLockingFailureException}, which the retry advice treats as transient.
+     */
+    private Optional<AccountEntity> lock(Long userId, Currency currency) {
+        LockWaitMode mode = balanceUpdateProperties.getLock().getMode();
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            Optional<AccountEntity> account = switch (mode) {
+                case WAIT -> accountRepository.findByUserIdAndCurrencyWithLock(userId, currency);
+                case NOWAIT -> accountRepository.findByUserIdAndCurrencyWithLockNoWait(userId, currency);
+                case SKIP_LOCKED -> accountRepository.findByUserIdAndCurrencyWithLockSkipLocked(userId, currency);
+            };
+            if (account.isEmpty() && mode == LockWaitMode.SKIP_LOCKED
+                    && accountRepository.findByUserIdAndCurrency(userId, currency).isPresent()) {
+                throw new CannotAcquireLockException(String.format(
+                        "Account %d %s is locked by another transaction.", userId, currency));
+            }
+            outcome = account.isPresent() ? "acquired" : "not_found";
+            return account;
+        } finally {
+            lockTimer(mode, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer lockTimer(LockWaitMode mode, String outcome) {
+        return lockTimers.computeIfAbsent(mode, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(outcome, key -> Timer.builder("account.lock.wait")
+                        .description("Time spent acquiring an account row lock")
+                        .tag("mode", mode.name().toLowerCase())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+    }
+
+    private static BalanceUpdateResult result(int index, BalanceUpdateRequest update, BalanceUpdateStatus status,
+                                              BigDecimal balance, String error) {
+        return BalanceUpdateResult.builder()
+                .index(index)
+                .userId(update == null ? null : update.getUserId())
+                .currency(update == null ? null : update.getCurrency())
+                .amount(update == null ? null : update.getAmount())
+                .status(status)
+                .balance(balance)
+                .error(error)
+                .build();
+    }
+
+    private static Money toMoney(BigDecimal amount) {
+        return toMoney(amount, "amount has more than " + Money.SCALE + " decimal places.");
+    }
+
+    /**
+     * {@link Money#of} with its {@link ArithmeticException}, too many decimal places or out of
+     * range, reported as a bad request.
+     */
+    private static Money toMoney(BigDecimal amount, String error) {
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException ex) {
+            throw new InvalidRequestException(error);
+        }
+    }
+
+    private static String insufficientFundsMessage(Money current, Currency currency, BigDecimal amount) {
+        return "Insufficient funds. Current: " + current + " " + currency + ", Tried to spend: " + amount.negate();
+    }
+}
@@ -0,0 +1,170 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
+import az.kapital.msaccountservice.exception.IdempotencyKeyConflictException;
+import az.kapital.msaccountservice.exception.InsufficientFundsException;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
+import az.kapital.msaccountservice.model.AccountKey;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BalanceUpdateResult;
+import az.kapital.msaccountservice.model.Currency;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entry point for single balance updates. When combining is enabled, concurrent updates to
+ * the same account are queued and the first caller applies them together through
+ * {@link AccountService#updateBalances}, so a hot account takes one row lock per group
+ * instead of one per request. Updates are applied in arrival order and every caller still
+ * gets its own response or exception.
+ */
+@Slf4j
+@Service
+public class BalanceUpdateCombiner {
+
+    private final AccountService accountService;
+    private final BalanceUpdateProperties.Combining properties;
+    private final ConcurrentHashMap<AccountKey, PendingQueue> queues = new ConcurrentHashMap<>();
+    private final DistributionSummary groupSize;
+
+    public BalanceUpdateCombiner(AccountService accountService,
+                                 BalanceUpdateProperties balanceUpdateProperties,
+                                 MeterRegistry meterRegistry) {
+        this.accountService = accountService;
+        this.properties = balanceUpdateProperties.getCombining();
+        this.groupSize = DistributionSummary.builder("account.balance-update.combined")
+                .description("Number of balance updates applied in one combined transaction")
+                .register(meterRegistry);
+    }
+
+    public AccountResponse updateBalance(Long userId, Currency currency, BigDecimal amount) {
+        return updateBalance(userId, currency, amount, null);
+    }
+
+    public AccountResponse updateBalance(Long userId, Currency currency, BigDecimal amount, String idempotencyKey) {
+        if (!properties.isEnabled()) {
+            return accountService.updateBalance(userId, currency, amount, idempotencyKey);
+        }
+
+        AccountKey key = new AccountKey(userId, currency);
+        PendingUpdate pending = new PendingUpdate(new BalanceUpdateRequest(userId, currency, amount, idempotencyKey));
+        PendingQueue queue = queues.computeIfAbsent(key, k -> new PendingQueue());
+        queue.updates.add(pending);
+        await(key, queue, pending);
+
+        try {
+            return toResponse(pending.result.join());
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns once {@code pending} has a result. Whoever wins {@code draining} applies groups
+     * only until its own update is done, so a request thread never keeps working for later
+     * arrivals; it then hands {@code draining} to the caller at the head of the queue. Everyone
+     * else parks until their group completes or the hand-off reaches them. A queue removed
+     * from the map while a late caller still holds it is drained by that caller, so no update
+     * is stranded.
+     */
+    private void await(AccountKey key, PendingQueue queue, PendingUpdate pending) {
+        while (!pending.result.isDone()) {
+            if (!queue.draining.compareAndSet(false, true)) {
+                LockSupport.park(queue);
+                continue;
+            }
+            try {
+                if (queue.updates.size() < properties.getMaxBatchSize()) {
+                    LockSupport.parkNanos(properties.getWindow().toNanos());
+                }
+                while (!pending.result.isDone() && !queue.updates.isEmpty()) {
+                    applyGroup(queue);
+                }
+                if (queue.updates.isEmpty()) {
+                    queues.remove(key, queue);
+                }
+            } finally {
+                queue.draining.set(false);
+                PendingUpdate head = queue.updates.peek();
+                if (head != null) {
+                    LockSupport.unpark(head.caller);
+                }
+            }
+        }
+    }
+
+    private void applyGroup(PendingQueue queue) {
+        List<PendingUpdate> group = new ArrayList<>();
+        PendingUpdate next;
+        while (group.size() < properties.getMaxBatchSize() && (next = queue.updates.poll()) != null) {
+            group.add(next);
+        }
+        if (group.isEmpty()) {
+            return;
+        }
+        groupSize.record(group.size());
+
+        List<BalanceUpdateRequest> requests = new ArrayList<>(group.size());
+        group.forEach(update -> requests.add(update.request));
+        try {
+            List<BalanceUpdateResult> results = accountService.updateBalances(requests);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(results.get(i));
+            }
+        } catch (Throwable ex) {
+            log.warn("Combined balance update of {} items failed: {}", group.size(), ex.getMessage());
+            group.forEach(update -> update.result.completeExceptionally(ex));
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            group.forEach(update -> LockSupport.unpark(update.caller));
+        }
+    }
+
+    private static AccountResponse toResponse(BalanceUpdateResult result) {
+        return switch (result.getStatus()) {
+            case APPLIED, REPLAYED -> new AccountResponse(
+                    result.getAccountId(), result.getUserId(), result.getCurrency(), result.getBalance());
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException(result.getError());
+            case IDEMPOTENCY_CONFLICT -> throw new IdempotencyKeyConflictException(result.getError());
+            case INVALID_REQUEST -> throw new InvalidRequestException(result.getError());
+            case ACCOUNT_NOT_FOUND -> throw new RuntimeException(result.getError());
+        };
+    }
+
+    private static final class PendingQueue {
+        private final Queue<PendingUpdate> updates = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private static final class PendingUpdate {
+        private final BalanceUpdateRequest request;
+        private final CompletableFuture<BalanceUpdateResult> result = new CompletableFuture<>();
+        private final Thread caller = Thread.currentThread();
+
+        private PendingUpdate(BalanceUpdateRequest request) {
+            this.request = request;
+        }
+    }
+}
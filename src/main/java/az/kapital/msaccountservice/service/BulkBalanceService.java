@@ -0,0 +1,138 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.BulkBalanceProperties;
+import az.kapital.msaccountservice.domain.repository.AccountJdbcRepository;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
+import az.kapital.msaccountservice.model.BulkBalanceRequest;
+import az.kapital.msaccountservice.model.BulkBalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.Money;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Balances for many users at once, for internal callers such as statement generation. The
+ * userIds are deduplicated and looked up with one {@code ANY(array)} query per chunk of
+ * {@code account.bulk-balance.chunk-size}; with several chunks they run in parallel, each in
+ * its own read-only transaction so they can be served by a replica. No token validation or
+ * username lookup is involved.
+ */
+@Service
+public class BulkBalanceService implements DisposableBean {
+
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final BulkBalanceProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final DistributionSummary requestedUsers;
+
+    public BulkBalanceService(AccountJdbcRepository accountJdbcRepository,
+                              BulkBalanceProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.accountJdbcRepository = accountJdbcRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-balance-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.requestedUsers = DistributionSummary.builder("account.bulk-balance.users")
+                .description("Distinct userIds per bulk balance request")
+                .register(meterRegistry);
+    }
+
+    public BulkBalanceResponse getBalances(BulkBalanceRequest request) {
+        if (request == null || request.getUserIds() == null || request.getUserIds().isEmpty()) {
+            throw new InvalidRequestException("userIds must not be empty");
+        }
+        Set<Long> userIds = new LinkedHashSet<>(request.getUserIds());
+        if (userIds.contains(null)) {
+            throw new InvalidRequestException("userIds must not contain null");
+        }
+        if (userIds.size() > properties.getMaxUserIds()) {
+            throw new InvalidRequestException("At most " + properties.getMaxUserIds()
+                    + " userIds per request, got " + userIds.size());
+        }
+        if (request.getCurrencies() != null && request.getCurrencies().contains(null)) {
+            throw new InvalidRequestException("currencies must not contain null");
+        }
+        Set<Currency> currencies = request.getCurrencies() == null || request.getCurrencies().isEmpty()
+                ? EnumSet.allOf(Currency.class)
+                : EnumSet.copyOf(request.getCurrencies());
+        requestedUsers.record(userIds.size());
+
+        List<List<Long>> chunks = chunks(userIds, Math.max(1, properties.getChunkSize()));
+        Map<Long, Map<Currency, Money>> found = new HashMap<>();
+        if (chunks.size() == 1) {
+            found.putAll(query(chunks.get(0), currencies));
+        } else {
+            List<CompletableFuture<Map<Long, Map<Currency, Money>>>> futures = new ArrayList<>(chunks.size());
+            for (List<Long> chunk : chunks) {
+                futures.add(CompletableFuture.supplyAsync(() -> query(chunk, currencies), executor));
+            }
+            try {
+                futures.forEach(future -> found.putAll(future.join()));
+            } catch (CompletionException ex) {
+                futures.forEach(future -> future.cancel(false));
+                throw ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+            }
+        }
+
+        // Reported in request order, whichever chunk finished first.
+        Map<Long, Map<Currency, Money>> balances = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            Map<Currency, Money> userBalances = found.get(userId);
+            if (userBalances != null) {
+                balances.put(userId, userBalances);
+            }
+        }
+        return new BulkBalanceResponse(balances);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Map<Long, Map<Currency, Money>> query(List<Long> userIds, Set<Currency> currencies) {
+        return readOnlyTransaction.execute(status -> accountJdbcRepository.findBalances(userIds, currencies));
+    }
+
+    private static List<List<Long>> chunks(Set<Long> userIds, int chunkSize) {
+        List<List<Long>> chunks = new ArrayList<>((userIds.size() + chunkSize - 1) / chunkSize);
+        List<Long> chunk = new ArrayList<>(Math.min(chunkSize, userIds.size()));
+        for (Long userId : userIds) {
+            chunk.add(userId);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,183 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.IdempotencyProperties;
+import az.kapital.msaccountservice.domain.entity.IdempotencyRecordEntity;
+import az.kapital.msaccountservice.domain.repository.IdempotencyRecordRepository;
+import az.kapital.msaccountservice.exception.IdempotencyKeyConflictException;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.Currency;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Remembers the response of every keyed balance update. Lookups hit an in-memory cache of
+ * recent keys first and fall back to a primary-key read of balance_update_idempotency.
+ * Records are written by {@link AccountService} in the same transaction as the balance
+ * change, and reach the cache only after that transaction commits. A key only replays the
+ * update it was first used for; reusing it with another userId, currency or amount is a
+ * conflict.
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    /**
+     * Length of the balance_update_idempotency.idempotency_key column.
+     */
+    public static final int MAX_KEY_LENGTH = 128;
+
+    public static final String INVALID_KEY_MESSAGE =
+            "idempotencyKey must be between 1 and " + MAX_KEY_LENGTH + " characters.";
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final Cache<String, IdempotencyRecordEntity> cache;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            IdempotencyProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency-cache");
+    }
+
+    /**
+     * Response recorded for {@code idempotencyKey}, if any. Throws
+     * {@link IdempotencyKeyConflictException} when the key was recorded for a different update.
+     */
+    public Optional<AccountResponse> find(String idempotencyKey, Long userId, Currency currency, BigDecimal amount) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        validateKey(idempotencyKey);
+        IdempotencyRecordEntity record = cache.getIfPresent(idempotencyKey);
+        if (record == null) {
+            record = repository.findById(idempotencyKey).orElse(null);
+            if (record == null) {
+                return Optional.empty();
+            }
+            cache.put(idempotencyKey, record);
+        }
+        if (!matches(record, userId, currency, amount)) {
+            throw conflict(idempotencyKey);
+        }
+        return Optional.of(toResponse(record));
+    }
+
+    /**
+     * Looks up several keys with one query. The batch path calls it after {@link #lockKeys},
+     * so a concurrent update holding one of the keys has already committed or rolled back.
+     */
+    public Map<String, IdempotencyRecordEntity> findAll(Collection<String> idempotencyKeys) {
+        Map<String, IdempotencyRecordEntity> found = new HashMap<>();
+        if (idempotencyKeys.isEmpty()) {
+            return found;
+        }
+        repository.findAllById(idempotencyKeys).forEach(record -> found.put(record.getIdempotencyKey(), record));
+        return found;
+    }
+
+    /**
+     * Serializes transactions that use the same keys until they commit. Keys are locked in
+     * sorted order, before any account row, so two batches sharing keys cannot deadlock.
+     * Must be called inside the transaction that records the keys.
+     */
+    public void lockKeys(Collection<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return;
+        }
+        repository.lockKeys(List.copyOf(new TreeSet<>(idempotencyKeys)));
+    }
+
+    public void record(String idempotencyKey, BigDecimal amount, AccountResponse response) {
+        IdempotencyRecordEntity record = toRecord(idempotencyKey, amount, response);
+        repository.save(record);
+        rememberAfterCommit(Map.of(idempotencyKey, record));
+    }
+
+    public void recordAll(List<IdempotencyRecordEntity> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        repository.saveAll(records);
+        Map<String, IdempotencyRecordEntity> byKey = new HashMap<>();
+        records.forEach(record -> byKey.put(record.getIdempotencyKey(), record));
+        rememberAfterCommit(byKey);
+    }
+
+    @Transactional
+    @Scheduled(cron = "${account.idempotency.purge-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.info("Purged {} idempotency records older than {}", deleted, properties.getRetention());
+        }
+    }
+
+    public static IdempotencyRecordEntity toRecord(String idempotencyKey, BigDecimal amount, AccountResponse response) {
+        return new IdempotencyRecordEntity(idempotencyKey, response.getId(), response.getUserId(),
+                response.getCurrency(), amount, response.getBalance(), LocalDateTime.now());
+    }
+
+    public static boolean isValidKey(String idempotencyKey) {
+        return !idempotencyKey.isEmpty() && idempotencyKey.length() <= MAX_KEY_LENGTH;
+    }
+
+    public static void validateKey(String idempotencyKey) {
+        if (!isValidKey(idempotencyKey)) {
+            throw new InvalidRequestException(INVALID_KEY_MESSAGE);
+        }
+    }
+
+    public static boolean matches(IdempotencyRecordEntity record, Long userId, Currency currency, BigDecimal amount) {
+        return Objects.equals(record.getUserId(), userId)
+                && record.getCurrency() == currency
+                && amount != null && record.getAmount().compareTo(amount) == 0;
+    }
+
+    public static IdempotencyKeyConflictException conflict(String idempotencyKey) {
+        return new IdempotencyKeyConflictException(
+                "idempotencyKey " + idempotencyKey + " was already used for a different update.");
+    }
+
+    public static AccountResponse toResponse(IdempotencyRecordEntity record) {
+        return new AccountResponse(record.getAccountId(), record.getUserId(), record.getCurrency(), record.getBalance());
+    }
+
+    private void rememberAfterCommit(Map<String, IdempotencyRecordEntity> records) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.putAll(records);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.putAll(records);
+            }
+        });
+    }
+}
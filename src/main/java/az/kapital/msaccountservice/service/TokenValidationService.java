@@ -0,0 +1,161 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.client.AuthServiceClient;
+import az.kapital.msaccountservice.config.JwtVerificationProperties;
+import az.kapital.msaccountservice.config.TokenCacheProperties;
+import az.kapital.msaccountservice.exception.InvalidTokenException;
+import az.kapital.msaccountservice.model.TokenValidationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Slf4j
+@Service
+public class TokenValidationService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AuthServiceClient authServiceClient;
+    private final TokenCacheProperties properties;
+    private final JwtVerificationProperties verificationProperties;
+    private final JwtDecoder jwtDecoder;
+    private final Cache<String, ValidatedToken> cache;
+
+    public TokenValidationService(AuthServiceClient authServiceClient,
+                                  TokenCacheProperties properties,
+                                  JwtVerificationProperties verificationProperties,
+                                  ObjectProvider<JwtDecoder> jwtDecoderProvider,
+                                  MeterRegistry meterRegistry) {
+        this.authServiceClient = authServiceClient;
+        this.properties = properties;
+        this.verificationProperties = verificationProperties;
+        this.jwtDecoder = verificationProperties.isEnabled() ? jwtDecoderProvider.getIfAvailable() : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth-token-cache");
+    }
+
+    public String resolveUsername(String token) {
+        if (jwtDecoder != null) {
+            String username = verifyLocally(token);
+            if (username != null) {
+                return username;
+            }
+        }
+        if (!properties.isEnabled()) {
+            return validateRemotely(token);
+        }
+        ValidatedToken validated = cache.get(hash(token), key -> load(token));
+        return validated == null ? null : validated.username();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private String verifyLocally(String token) {
+        try {
+            Jwt jwt = jwtDecoder.decode(token);
+            String username = jwt.getClaimAsString(verificationProperties.getUsernameClaim());
+            if (username == null) {
+                throw new InvalidTokenException("Token has no "
+                        + verificationProperties.getUsernameClaim() + " claim");
+            }
+            return username;
+        } catch (BadJwtException ex) {
+            throw new InvalidTokenException(ex.getMessage());
+        } catch (JwtException ex) {
+            if (!verificationProperties.isFallbackToRemote()) {
+                throw new InvalidTokenException(ex.getMessage());
+            }
+            log.warn("Local token verification unavailable, falling back to ms-auth-service: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private ValidatedToken load(String token) {
+        String username = validateRemotely(token);
+        if (username == null) {
+            return null;
+        }
+        return new ValidatedToken(username, readExpiry(token));
+    }
+
+    private String validateRemotely(String token) {
+        return authServiceClient.validateToken(new TokenValidationRequest(token));
+    }
+
+    /**
+     * Reads the {@code exp} claim without verifying the signature; the token has just been
+     * accepted by ms-auth-service, so the claim is only used to cap the cache lifetime.
+     */
+    private long readExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            JsonNode exp = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : Long.MAX_VALUE;
+        } catch (Exception ex) {
+            log.debug("Could not read exp claim from token: {}", ex.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record ValidatedToken(String username, long expiresAtMillis) {
+    }
+
+    private class TokenExpiry implements Expiry<String, ValidatedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, ValidatedToken value, long currentTime) {
+            long ttl = properties.getTtl().toNanos();
+            if (value.expiresAtMillis() == Long.MAX_VALUE) {
+                return ttl;
+            }
+            long remaining = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(ttl, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidatedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidatedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
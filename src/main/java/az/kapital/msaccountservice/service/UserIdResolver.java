@@ -0,0 +1,73 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.UserIdCacheProperties;
+import az.kapital.msaccountservice.domain.entity.UserEntity;
+import az.kapital.msaccountservice.domain.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class UserIdResolver {
+
+    private final UserRepository userRepository;
+    private final UserIdCacheProperties properties;
+    private final Cache<String, Long> cache;
+    private final Timer lookupTimer;
+
+    public UserIdResolver(UserRepository userRepository,
+                          UserIdCacheProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.lookupTimer = Timer.builder("account.user-id.lookup")
+                .description("Time to resolve a username to its account_user id")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-id-cache");
+    }
+
+    /**
+     * Unknown usernames are not cached, so a user inserted after a failed lookup is found
+     * on the next request without an eviction.
+     */
+    public Optional<Long> resolve(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            if (!properties.isEnabled()) {
+                return findId(username);
+            }
+            return Optional.ofNullable(cache.get(username, key -> findId(key).orElse(null)));
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        log.info("Evicting {} cached username mappings", cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    private Optional<Long> findId(String username) {
+        return userRepository.findByUsername(username).map(UserEntity::getId);
+    }
+}
@@ -0,0 +1,40 @@
+package az.kapital.msaccountservice.aop;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountServiceMetricsInterceptorTest {
+
+    @Test
+    @DisplayName("should record latency per method and outcome")
+    void invoke_shouldRecordSuccessAndErrorTimers() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProxyFactory factory = new ProxyFactory((Function<String, String>) value -> {
+            if (value == null) {
+                throw new IllegalArgumentException("value");
+            }
+            return value;
+        });
+        factory.addAdvice(new AccountServiceMetricsInterceptor(registry));
+        @SuppressWarnings("unchecked")
+        Function<String, String> proxy = (Function<String, String>) factory.getProxy();
+
+        proxy.apply("a");
+        proxy.apply("b");
+        assertThatThrownBy(() -> proxy.apply(null)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(registry.get(AccountServiceMetricsInterceptor.METRIC_NAME)
+                .tags("method", "apply", "outcome", "success", "exception", "none")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get(AccountServiceMetricsInterceptor.METRIC_NAME)
+                .tags("method", "apply", "outcome", "error", "exception", "IllegalArgumentException")
+                .timer().count()).isEqualTo(1);
+    }
+}
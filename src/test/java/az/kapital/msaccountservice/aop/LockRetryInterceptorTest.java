@@ -0,0 +1,95 @@
+package az.kapital.msaccountservice.aop;
+
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LockRetryInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private BalanceUpdateProperties.Retry properties;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new BalanceUpdateProperties.Retry();
+        properties.setInitialBackoff(Duration.ZERO);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("should re-run the call after transient lock failures")
+    void invoke_shouldRetry_UntilLockAcquired() {
+        Supplier<String> proxy = proxy(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("lock timeout");
+            }
+            return "ok";
+        });
+
+        assertThat(proxy.get()).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+        assertThat(registry.get(LockRetryInterceptor.RETRIES_METRIC).tags("method", "get")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get(LockRetryInterceptor.FAILURES_METRIC).tags("method", "get", "outcome", "recovered")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should give up after the configured attempts")
+    void invoke_shouldRethrow_WhenAttemptsExhausted() {
+        Supplier<String> proxy = proxy(() -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("lock timeout");
+        });
+
+        assertThatThrownBy(proxy::get).isInstanceOf(CannotAcquireLockException.class);
+        assertThat(calls).hasValue(properties.getMaxAttempts());
+        assertThat(registry.get(LockRetryInterceptor.FAILURES_METRIC).tags("method", "get", "outcome", "exhausted")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not retry failures unrelated to locking")
+    void invoke_shouldNotRetry_OtherExceptions() {
+        Supplier<String> proxy = proxy(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(proxy::get).isInstanceOf(IllegalStateException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should keep the jittered backoff within the doubling ceiling")
+    void backoffMillis_shouldStayWithinCap() {
+        properties.setInitialBackoff(Duration.ofMillis(20));
+        properties.setMaxBackoff(Duration.ofMillis(50));
+        LockRetryInterceptor interceptor = new LockRetryInterceptor(properties, registry);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(interceptor.backoffMillis(1)).isBetween(0L, 20L);
+            assertThat(interceptor.backoffMillis(5)).isBetween(0L, 50L);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Supplier<String> proxy(Supplier<String> target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(new LockRetryInterceptor(properties, registry));
+        return (Supplier<String>) factory.getProxy();
+    }
+}
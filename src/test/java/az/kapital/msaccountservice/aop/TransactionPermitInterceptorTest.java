@@ -0,0 +1,147 @@
+package az.kapital.msaccountservice.aop;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionPermitInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private ExecutorService executor;
+    // Gauges hold their semaphore weakly; keep the interceptor reachable for the whole test.
+    private TransactionPermitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("should hold a permit for the duration of the call and return it afterwards")
+    void invoke_shouldAcquireAndRelease() {
+        Supplier<Double> proxy = proxy(2, Duration.ofSeconds(1), this::available);
+
+        assertThat(proxy.get()).isEqualTo(1.0);
+        assertThat(available()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should fail with CannotCreateTransactionException when no permit frees up in time")
+    void invoke_shouldTimeOut_WhenPermitsExhausted() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> proxy = proxy(1, Duration.ofMillis(50), () -> {
+            inside.countDown();
+            await(release);
+            return "ok";
+        });
+        Future<String> holder = executor.submit(proxy::get);
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(proxy::get)
+                .isInstanceOf(CannotCreateTransactionException.class)
+                .hasMessage("Timed out waiting for a transaction permit");
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(available()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should return the permit when the call throws")
+    void invoke_shouldRelease_WhenCallFails() {
+        Supplier<String> proxy = proxy(1, Duration.ofMillis(50), () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(proxy::get).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(proxy::get).isInstanceOf(IllegalStateException.class);
+        assertThat(available()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should not take a second permit inside an active transaction")
+    void invoke_shouldSkip_WhenTransactionActive() {
+        Supplier<Double> proxy = proxy(1, Duration.ofMillis(50), this::available);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThat(proxy.get()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should report threads queued for a permit")
+    void gauges_shouldReportWaitingThreads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> proxy = proxy(1, Duration.ofSeconds(5), () -> {
+            await(release);
+            return "ok";
+        });
+        ExecutorService waiters = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = waiters.submit(proxy::get);
+            Future<String> second = waiters.submit(proxy::get);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (waiting() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertThat(available()).isZero();
+            assertThat(waiting()).isEqualTo(1.0);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+            assertThat(available()).isEqualTo(1.0);
+            assertThat(waiting()).isZero();
+        } finally {
+            waiters.shutdownNow();
+        }
+    }
+
+    private double available() {
+        return registry.get("account.transaction.permits.available").gauge().value();
+    }
+
+    private double waiting() {
+        return registry.get("account.transaction.permits.waiting").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Supplier<T> proxy(int permits, Duration timeout, Supplier<T> target) {
+        interceptor = new TransactionPermitInterceptor(permits, timeout, registry);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(interceptor);
+        return (Supplier<T>) factory.getProxy();
+    }
+}
@@ -0,0 +1,174 @@
+package az.kapital.msaccountservice.cache;
+
+import az.kapital.msaccountservice.config.BalanceCacheProperties;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    private BalanceCacheProperties properties;
+    private InMemoryBalanceCacheInvalidationChannel channel;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceCache balanceCache;
+    private TransactionTemplate transactionTemplate;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BalanceCacheProperties();
+        properties.setEnabled(true);
+        channel = new InMemoryBalanceCacheInvalidationChannel();
+        meterRegistry = new SimpleMeterRegistry();
+        balanceCache = new BalanceCache(properties, channel, meterRegistry);
+        transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("should load balances once and serve repeated reads from cache")
+    void get_shouldLoadOnce() {
+        read(balanceCache, "100.00");
+        List<BalanceResponse> cached = read(balanceCache, "999.00");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cached.get(0).getBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("should write the committed balance through to the cached entry")
+    void onBalanceChanged_shouldWriteThrough_AfterCommit() {
+        read(balanceCache, "100.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceCache.onBalanceChanged(changed("50.00", "150.00"));
+            assertThat(read(balanceCache, "0").get(0).getBalance()).isEqualByComparingTo("100.00");
+        });
+
+        assertThat(read(balanceCache, "0").get(0).getBalance()).isEqualByComparingTo("150.00");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("account.balance-cache.updates").tag("result", "write_through")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should keep the cached balance when the transaction rolls back")
+    void onBalanceChanged_shouldKeepEntry_WhenRolledBack() {
+        read(balanceCache, "100.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceCache.onBalanceChanged(changed("50.00", "150.00"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(read(balanceCache, "0").get(0).getBalance()).isEqualByComparingTo("100.00");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should invalidate instead of writing through when transactions overlap")
+    void onBalanceChanged_shouldInvalidate_WhenTransactionsOverlap() {
+        read(balanceCache, "100.00");
+
+        transactionTemplate.executeWithoutResult(outer -> {
+            balanceCache.onBalanceChanged(changed("50.00", "150.00"));
+            TransactionTemplate inner = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            inner.executeWithoutResult(status -> balanceCache.onBalanceChanged(changed("10.00", "160.00")));
+        });
+
+        assertThat(read(balanceCache, "160.00").get(0).getBalance()).isEqualByComparingTo("160.00");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should invalidate other nodes through the channel after commit")
+    void onBalanceChanged_shouldInvalidateOtherNodes_WhenBroadcastEnabled() {
+        properties.setBroadcast(true);
+        BalanceCache otherNode = new BalanceCache(properties, channel, new SimpleMeterRegistry());
+        read(balanceCache, "100.00");
+        read(otherNode, "100.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceCache.onBalanceChanged(changed("50.00", "150.00"));
+            assertThat(read(otherNode, "0").get(0).getBalance()).isEqualByComparingTo("100.00");
+        });
+
+        assertThat(read(otherNode, "150.00").get(0).getBalance()).isEqualByComparingTo("150.00");
+        assertThat(read(balanceCache, "0").get(0).getBalance()).isEqualByComparingTo("150.00");
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should always load when disabled")
+    void get_shouldBypassCache_WhenDisabled() {
+        properties.setEnabled(false);
+
+        read(balanceCache, "100.00");
+        read(balanceCache, "100.00");
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private List<BalanceResponse> read(BalanceCache cache, String balance) {
+        return cache.get(USER_ID, () -> {
+            loads.incrementAndGet();
+            return List.of(new BalanceResponse(Currency.USD, new BigDecimal(balance)));
+        });
+    }
+
+    private static BalanceChangedEvent changed(String amount, String balance) {
+        return new BalanceChangedEvent(10L, USER_ID, Currency.USD, new BigDecimal(amount), new BigDecimal(balance));
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            return transaction;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package az.kapital.msaccountservice.client;
+
+import az.kapital.msaccountservice.exception.AuthServiceUnavailableException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientFeignClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options();
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.of("ms-auth-service", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        bulkhead = Bulkhead.of("ms-auth-service", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("should open the circuit after failures and then fail fast without calling the service")
+    void execute_shouldFailFast_WhenCircuitOpen() throws Exception {
+        ResilientFeignClient client = new ResilientFeignClient((request, options) -> {
+            if (calls.incrementAndGet() % 2 == 0) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            return response(request, 503);
+        }, circuitBreaker, bulkhead);
+
+        for (int i = 0; i < 4; i++) {
+            try {
+                client.execute(request(), OPTIONS);
+            } catch (SocketTimeoutException ignored) {
+                // counted by the breaker
+            }
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> client.execute(request(), OPTIONS))
+                .isInstanceOf(AuthServiceUnavailableException.class);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("should treat client errors as a healthy service")
+    void execute_shouldKeepCircuitClosed_OnClientErrors() throws Exception {
+        ResilientFeignClient client = new ResilientFeignClient(
+                (request, options) -> response(request, 401), circuitBreaker, bulkhead);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(401);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("should reject calls beyond the bulkhead limit and release the permit afterwards")
+    void execute_shouldRejectCall_WhenBulkheadFull() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Client slow = (request, options) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return response(request, 200);
+        };
+        ResilientFeignClient client = new ResilientFeignClient(slow, circuitBreaker, bulkhead);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Response> inFlight = executor.submit(() -> client.execute(request(), OPTIONS));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> client.execute(request(), OPTIONS))
+                    .isInstanceOf(AuthServiceUnavailableException.class);
+
+            release.countDown();
+            assertThat(inFlight.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+            assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(200);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.POST, "http://localhost/api/auth/validate", Map.of(),
+                "{\"token\":\"t\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request, int status) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .build();
+    }
+}
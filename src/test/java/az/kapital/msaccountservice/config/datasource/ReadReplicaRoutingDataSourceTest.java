@@ -0,0 +1,61 @@
+package az.kapital.msaccountservice.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private ReadReplicaRoutingDataSource.ReplicaTarget first;
+    private ReadReplicaRoutingDataSource.ReplicaTarget second;
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        first = new ReadReplicaRoutingDataSource.ReplicaTarget("replica-1", mock(DataSource.class));
+        second = new ReadReplicaRoutingDataSource.ReplicaTarget("replica-2", mock(DataSource.class));
+        routingDataSource = new ReadReplicaRoutingDataSource(mock(DataSource.class), List.of(first, second));
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("should route read-write transactions to primary")
+    void determineCurrentLookupKey_shouldReturnPrimary_WhenNotReadOnly() {
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("should spread read-only transactions across healthy replicas")
+    void determineCurrentLookupKey_shouldRoundRobinReplicas_WhenReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(List.of(routingDataSource.determineCurrentLookupKey(), routingDataSource.determineCurrentLookupKey()))
+                .containsExactlyInAnyOrder("replica-1", "replica-2");
+    }
+
+    @Test
+    @DisplayName("should skip lagging replicas and fall back to primary when none are healthy")
+    void determineCurrentLookupKey_shouldFallBack_WhenReplicasLag() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        first.update(false, 30);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-2");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-2");
+
+        second.update(false, 30);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadReplicaRoutingDataSource.PRIMARY);
+    }
+}
@@ -0,0 +1,88 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Applies the real changelog to Postgres, seeds enough accounts that a sequential scan would
+ * be the planner's choice without an index, and checks the plans of the hot account queries.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AccountIndexPlanTest {
+
+    private static final int USERS = 200_000;
+    private static final long FIRST_USER_ID = 1_000_000L;
+    private static final String INDEX = "ux_account_user_id_currency";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/change-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO account_user (id, username) "
+                + "SELECT g, 'plan-user-' || g FROM generate_series(?::bigint, ?::bigint) g",
+                FIRST_USER_ID, FIRST_USER_ID + USERS - 1);
+        jdbcTemplate.update("INSERT INTO account (user_id, currency, balance) "
+                + "SELECT g, c, 100 FROM generate_series(?::bigint, ?::bigint) g, "
+                + "unnest(ARRAY['USD', 'EUR', 'AZN']) c",
+                FIRST_USER_ID, FIRST_USER_ID + USERS - 1);
+        jdbcTemplate.execute("ANALYZE account");
+    }
+
+    @Test
+    @DisplayName("should look up a user's accounts through the composite index")
+    void findByUserId_shouldUseIndex() {
+        assertUsesIndex("SELECT id, user_id, currency, balance FROM account WHERE user_id = ?",
+                FIRST_USER_ID + 42);
+        assertUsesIndex("SELECT currency, balance FROM account WHERE user_id = ?", FIRST_USER_ID + 42);
+    }
+
+    @Test
+    @DisplayName("should lock and update one account through the composite index")
+    void lockAndUpdate_shouldUseIndex() {
+        assertUsesIndex("SELECT id, user_id, currency, balance FROM account "
+                + "WHERE user_id = ? AND currency = ? FOR NO KEY UPDATE", FIRST_USER_ID + 42, "USD");
+        assertUsesIndex("UPDATE account SET balance = balance + 1 "
+                + "WHERE user_id = ? AND currency = ? AND balance + 1 >= 0", FIRST_USER_ID + 42, "USD");
+    }
+
+    @Test
+    @DisplayName("should reject a second account in the same currency")
+    void insert_shouldRejectDuplicateCurrency() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO account (user_id, currency, balance) VALUES (?, 'USD', 0)", FIRST_USER_ID))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessageContaining(INDEX);
+    }
+
+    private static void assertUsesIndex(String sql, Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+        String text = String.join("\n", plan);
+        assertThat(text).as(text).contains(INDEX).doesNotContain("Seq Scan");
+    }
+}
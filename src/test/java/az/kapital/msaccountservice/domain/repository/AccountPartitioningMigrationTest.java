@@ -0,0 +1,116 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Applies the changelog as deployed, seeds accounts, then re-runs it with partitioning enabled
+ * so the online copy and the swap run against existing data, as they would in production.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AccountPartitioningMigrationTest {
+
+    private static final int USERS = 20_000;
+    private static final long FIRST_USER_ID = 1_000_000L;
+    private static final int PARTITIONS = 8;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateSeedAndPartition() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        migrate(dataSource, Map.of());
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO account_user (id, username) "
+                + "SELECT g, 'part-user-' || g FROM generate_series(?::bigint, ?::bigint) g",
+                FIRST_USER_ID, FIRST_USER_ID + USERS - 1);
+        jdbcTemplate.update("INSERT INTO account (user_id, currency, balance) "
+                + "SELECT g, c, 100 FROM generate_series(?::bigint, ?::bigint) g, "
+                + "unnest(ARRAY['USD', 'EUR', 'AZN']) c",
+                FIRST_USER_ID, FIRST_USER_ID + USERS - 1);
+
+        migrate(dataSource, Map.of(
+                "account-partitioning", "enabled",
+                "account-partition-count", String.valueOf(PARTITIONS),
+                "account-partition-copy-batch", "7000"));
+        jdbcTemplate.execute("ANALYZE account");
+    }
+
+    @Test
+    @DisplayName("should replace account with a hash-partitioned table holding every row")
+    void migration_shouldCopyEveryRow() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhparent WHERE c.relname = 'account'", Integer.class))
+                .isEqualTo(PARTITIONS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_unpartitioned", Long.class))
+                .isGreaterThanOrEqualTo(USERS * 3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(balance) FROM account", BigDecimal.class))
+                .isEqualByComparingTo(jdbcTemplate.queryForObject(
+                        "SELECT SUM(balance) FROM account_unpartitioned", BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("should prune to one partition for the user_id keyed queries")
+    void queries_shouldTouchOnePartition() {
+        assertSinglePartition("SELECT currency, balance FROM account WHERE user_id = ?", FIRST_USER_ID + 42);
+        assertSinglePartition("SELECT user_id, currency FROM account WHERE user_id = ANY(?::bigint[])",
+                "{" + (FIRST_USER_ID + 42) + "}");
+        assertSinglePartition("SELECT id, user_id, currency, balance FROM account "
+                + "WHERE user_id = ? AND currency = ? FOR NO KEY UPDATE", FIRST_USER_ID + 42, "USD");
+        assertSinglePartition("UPDATE account SET balance = ? WHERE id = ? AND user_id = ?",
+                BigDecimal.ONE, 1L, FIRST_USER_ID + 42);
+    }
+
+    @Test
+    @DisplayName("should keep ids from the sequence and reject a second account in the same currency")
+    void insert_shouldKeepSequenceAndUniqueness() {
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM account", Long.class);
+        jdbcTemplate.update("INSERT INTO account_user (id, username) VALUES (?, 'part-user-new')",
+                FIRST_USER_ID + USERS);
+        Long id = jdbcTemplate.queryForObject("INSERT INTO account (user_id, currency, balance) "
+                + "VALUES (?, 'USD', 0) RETURNING id", Long.class, FIRST_USER_ID + USERS);
+
+        assertThat(id).isGreaterThan(maxId);
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO account (user_id, currency, balance) VALUES (?, 'USD', 0)", FIRST_USER_ID))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    private static void migrate(DriverManagerDataSource dataSource, Map<String, String> parameters)
+            throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/change-master.yml");
+        liquibase.setChangeLogParameters(parameters);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    private static void assertSinglePartition(String sql, Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+        String text = String.join("\n", plan);
+        assertThat(text).as(text).doesNotContain("Append").doesNotContain("Seq Scan");
+    }
+}
@@ -0,0 +1,177 @@
+package az.kapital.msaccountservice.domain.repository;
+
+import az.kapital.msaccountservice.domain.repository.LedgerRepository.LedgerEntry;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the snapshot, balance-as-of and reconciliation SQL against a migrated Postgres. Ledger
+ * rows are inserted with explicit timestamps so the as-of boundaries are deterministic.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LedgerRepositoryTest {
+
+    private static final long USER_ID = 5_000_000L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static LedgerRepository ledgerRepository;
+
+    private long usd;
+    private long eur;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/change-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ledgerRepository = new LedgerRepository(jdbcTemplate);
+    }
+
+    @BeforeEach
+    void seed() {
+        // Only this test's accounts, so the seeded accounts and their opening entries stay out of the way.
+        jdbcTemplate.update("TRUNCATE balance_ledger, balance_snapshot, balance_snapshot_latest");
+        jdbcTemplate.update("DELETE FROM account");
+        jdbcTemplate.update("DELETE FROM account_user WHERE id = ?", USER_ID);
+        jdbcTemplate.update("INSERT INTO account_user (id, username) VALUES (?, 'ledger-user')", USER_ID);
+        usd = jdbcTemplate.queryForObject("INSERT INTO account (user_id, currency, balance) "
+                + "VALUES (?, 'USD', 0) RETURNING id", Long.class, USER_ID);
+        eur = jdbcTemplate.queryForObject("INSERT INTO account (user_id, currency, balance) "
+                + "VALUES (?, 'EUR', 0) RETURNING id", Long.class, USER_ID);
+    }
+
+    @Test
+    @DisplayName("should snapshot from the latest snapshot and keep one latest row per account")
+    void takeSnapshots_shouldAdvanceLatestSnapshot() {
+        entries(usd, "10", "20", "30");
+        entries(eur, "5");
+
+        assertThat(ledgerRepository.takeSnapshots(2)).isEqualTo(1);
+        assertThat(latest(usd)).isEqualByComparingTo("60");
+        assertThat(latestCount()).isEqualTo(1);
+
+        entries(usd, "-15", "5");
+        assertThat(ledgerRepository.takeSnapshots(2)).isEqualTo(1);
+
+        assertThat(latest(usd)).isEqualByComparingTo("50");
+        assertThat(latestCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_snapshot WHERE account_id = ?",
+                Integer.class, usd)).isEqualTo(2);
+        assertThat(ledgerRepository.takeSnapshots(2)).isZero();
+    }
+
+    @Test
+    @DisplayName("should prune old history snapshots but keep the latest one")
+    void pruneSnapshots_shouldKeepLatest() {
+        entries(usd, "10", "20");
+        ledgerRepository.takeSnapshots(1);
+        jdbcTemplate.update("UPDATE balance_snapshot SET taken_at = LOCALTIMESTAMP - INTERVAL '100 days'");
+
+        assertThat(ledgerRepository.pruneSnapshots(Duration.ofDays(90))).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_snapshot", Integer.class)).isZero();
+        assertThat(latest(usd)).isEqualByComparingTo("30");
+        assertThat(ledgerRepository.balanceAsOf(usd, LocalDateTime.now().plusDays(1))).hasValueSatisfying(
+                balance -> assertThat(balance).isEqualByComparingTo("30"));
+    }
+
+    @Test
+    @DisplayName("should combine the snapshot at or before the instant with the ledger rows after it")
+    void balanceAsOf_shouldUseSnapshotAndLedger() {
+        entry(usd, "100", T0);
+        entry(usd, "-30", T0.plusHours(1));
+        ledgerRepository.takeSnapshots(1);
+        entry(usd, "5", T0.plusHours(2));
+        entry(usd, "7", T0.plusHours(3));
+
+        assertThat(ledgerRepository.balanceAsOf(usd, T0.minusMinutes(1))).hasValueSatisfying(
+                balance -> assertThat(balance).isEqualByComparingTo("0"));
+        assertThat(ledgerRepository.balanceAsOf(usd, T0.plusMinutes(30))).hasValueSatisfying(
+                balance -> assertThat(balance).isEqualByComparingTo("100"));
+        assertThat(ledgerRepository.balanceAsOf(usd, T0.plusHours(2))).hasValueSatisfying(
+                balance -> assertThat(balance).isEqualByComparingTo("75"));
+        assertThat(ledgerRepository.balanceAsOf(usd, T0.plusHours(5))).hasValueSatisfying(
+                balance -> assertThat(balance).isEqualByComparingTo("82"));
+        assertThat(ledgerRepository.balanceAsOf(eur, T0.plusHours(5))).hasValueSatisfying(
+                balance -> assertThat(balance).isEqualByComparingTo("0"));
+    }
+
+    @Test
+    @DisplayName("should return empty for an account that does not exist")
+    void balanceAsOf_shouldBeEmpty_WhenAccountMissing() {
+        assertThat(ledgerRepository.balanceAsOf(usd + eur + 1000, T0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should derive each account's balance from its latest snapshot and later entries")
+    void streamReconciliation_shouldReportLedgerBalance() {
+        ledgerRepository.insertEntries(List.of(
+                new LedgerEntry(usd, new BigDecimal("40")), new LedgerEntry(usd, new BigDecimal("-10"))));
+        ledgerRepository.takeSnapshots(1);
+        ledgerRepository.insertEntries(List.of(new LedgerEntry(usd, new BigDecimal("2.5"))));
+        jdbcTemplate.update("UPDATE account SET balance = 32.5 WHERE id = ?", usd);
+        jdbcTemplate.update("UPDATE account SET balance = 1 WHERE id = ?", eur);
+
+        Map<Long, BigDecimal[]> rows = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> ledgerRepository.streamReconciliation(1, rs ->
+                rows.put(rs.getLong("id"),
+                        new BigDecimal[]{rs.getBigDecimal("balance"), rs.getBigDecimal("ledger_balance")})));
+
+        assertThat(rows).containsOnlyKeys(usd, eur);
+        assertThat(rows.get(usd)[1]).isEqualByComparingTo(rows.get(usd)[0]).isEqualByComparingTo("32.5");
+        assertThat(rows.get(eur)[1]).isEqualByComparingTo("0");
+    }
+
+    private static void entries(long accountId, String... amounts) {
+        for (String amount : amounts) {
+            ledgerRepository.insertEntries(List.of(new LedgerEntry(accountId, new BigDecimal(amount))));
+        }
+    }
+
+    private static void entry(long accountId, String amount, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO balance_ledger (account_id, amount, created_at) VALUES (?, ?, ?)",
+                accountId, new BigDecimal(amount), Timestamp.valueOf(createdAt));
+    }
+
+    private static BigDecimal latest(long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM balance_snapshot_latest WHERE account_id = ?",
+                BigDecimal.class, accountId);
+    }
+
+    private static int latestCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_snapshot_latest", Integer.class);
+    }
+}
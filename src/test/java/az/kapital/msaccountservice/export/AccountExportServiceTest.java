@@ -0,0 +1,86 @@
+package az.kapital.msaccountservice.export;
+
+import az.kapital.msaccountservice.config.ExportProperties;
+import az.kapital.msaccountservice.domain.repository.AccountJdbcRepository;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountExportServiceTest {
+
+    @Mock
+    private AccountJdbcRepository accountJdbcRepository;
+
+    private AccountExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new AccountExportService(accountJdbcRepository, new ExportProperties(),
+                new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should write one JSON object per line")
+    void export_shouldWriteNdjson() throws Exception {
+        streamRows(null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(ExportFormat.NDJSON, null, out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"accountId\":1,\"userId\":10,\"currency\":\"USD\",\"balance\":100.0000}\n"
+                        + "{\"accountId\":2,\"userId\":11,\"currency\":\"USD\",\"balance\":0.5000}\n");
+    }
+
+    @Test
+    @DisplayName("should write a header and one CSV line per account")
+    void export_shouldWriteCsv_WhenFilteredByCurrency() throws Exception {
+        streamRows(Currency.USD);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ExportFormat.CSV, Currency.USD, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "account_id,user_id,currency,balance\n1,10,USD,100.0000\n2,11,USD,0.5000\n");
+    }
+
+    private void streamRows(Currency currency) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(row(1L, 10L, "100.0000"));
+            handler.processRow(row(2L, 11L, "0.5000"));
+            return null;
+        }).when(accountJdbcRepository).streamAccounts(eq(currency), eq(5000), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet row(long id, long userId, String balance) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getLong("user_id")).thenReturn(userId);
+        when(rs.getString("currency")).thenReturn("USD");
+        when(rs.getBigDecimal("balance")).thenReturn(new BigDecimal(balance));
+        return rs;
+    }
+}
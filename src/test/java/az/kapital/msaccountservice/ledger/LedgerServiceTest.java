@@ -0,0 +1,60 @@
+package az.kapital.msaccountservice.ledger;
+
+import az.kapital.msaccountservice.config.LedgerProperties;
+import az.kapital.msaccountservice.domain.repository.LedgerRepository;
+import az.kapital.msaccountservice.exception.AccountNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerProperties properties;
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LedgerProperties();
+        ledgerService = new LedgerService(ledgerRepository, properties, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should report a missing account as not found rather than a zero balance")
+    void balanceAsOf_shouldThrowNotFound_WhenAccountMissing() {
+        LocalDateTime at = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(ledgerRepository.balanceAsOf(42L, at)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> ledgerService.balanceAsOf(42L, at))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessage("Account 42 not found.");
+    }
+
+    @Test
+    @DisplayName("should prune history snapshots past the retention after taking new ones")
+    void takeSnapshots_shouldPruneOldSnapshots() {
+        when(ledgerRepository.takeSnapshots(properties.getSnapshotMinEntries())).thenReturn(3);
+
+        ledgerService.takeSnapshots();
+
+        verify(ledgerRepository).pruneSnapshots(properties.getSnapshotRetention());
+    }
+}
@@ -0,0 +1,82 @@
+package az.kapital.msaccountservice.ledger;
+
+import az.kapital.msaccountservice.config.LedgerProperties;
+import az.kapital.msaccountservice.domain.repository.LedgerRepository;
+import az.kapital.msaccountservice.domain.repository.LedgerRepository.LedgerEntry;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
+import az.kapital.msaccountservice.model.Currency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerWriterTest {
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    private LedgerWriter ledgerWriter;
+
+    @BeforeEach
+    void setUp() {
+        ledgerWriter = new LedgerWriter(ledgerRepository, new LedgerProperties());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    @DisplayName("should write all deltas of a transaction as one batch before commit")
+    void onBalanceChanged_shouldBatchEntries_BeforeCommit() {
+        ledgerWriter.onBalanceChanged(changed(10L, "5.00"));
+        ledgerWriter.onBalanceChanged(changed(10L, "-2.00"));
+        ledgerWriter.onBalanceChanged(changed(11L, "1.00"));
+        verify(ledgerRepository, never()).insertEntries(anyList());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(ledgerRepository, times(1)).insertEntries(List.of(
+                new LedgerEntry(10L, new BigDecimal("5.00")),
+                new LedgerEntry(10L, new BigDecimal("-2.00")),
+                new LedgerEntry(11L, new BigDecimal("1.00"))));
+    }
+
+    @Test
+    @DisplayName("should write nothing when the transaction rolls back")
+    void onBalanceChanged_shouldNotWrite_WhenRolledBack() {
+        ledgerWriter.onBalanceChanged(changed(10L, "5.00"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(ledgerRepository, never()).insertEntries(anyList());
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private static BalanceChangedEvent changed(Long accountId, String amount) {
+        return new BalanceChangedEvent(accountId, 1L, Currency.USD, new BigDecimal(amount), BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,62 @@
+package az.kapital.msaccountservice.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("should convert exactly to and from BigDecimal at scale 4")
+    void of_shouldRoundTripBigDecimal() {
+        assertThat(Money.of(new BigDecimal("12.5")).minorUnits()).isEqualTo(125_000L);
+        assertThat(Money.of(new BigDecimal("-0.0001")).toBigDecimal()).isEqualTo(new BigDecimal("-0.0001"));
+        assertThat(Money.of(new BigDecimal("1.000000"))).isEqualTo(Money.ofMinor(10_000L));
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.00001"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1000000000000000"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("should parse plain decimals and print them with four places")
+    void parse_shouldMatchToString() {
+        assertThat(Money.parse("100")).hasToString("100.0000");
+        assertThat(Money.parse("-0.05")).hasToString("-0.0500");
+        assertThat(Money.parse("+7.12340")).hasToString("7.1234");
+        assertThat(Money.ofMinor(Long.MIN_VALUE)).hasToString("-922337203685477.5808");
+        assertThat(Money.parse("-922337203685477.5808")).isEqualTo(Money.ofMinor(Long.MIN_VALUE));
+        assertThatThrownBy(() -> Money.parse("922337203685477.5808")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("1.00001")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("1e3")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Money.parse("-")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    @DisplayName("should fail on overflow instead of wrapping")
+    void plus_shouldThrow_OnOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThat(Money.parse("1.5").plus(Money.parse("-2")).isNegative()).isTrue();
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("should serialize as a JSON number and read numbers or strings")
+    void json_shouldRoundTrip() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertThat(objectMapper.writeValueAsString(Map.of("balance", Money.parse("10.5"))))
+                .isEqualTo("{\"balance\":10.5000}");
+        assertThat(objectMapper.readValue("12.34", Money.class)).isEqualTo(Money.parse("12.34"));
+        assertThat(objectMapper.readValue("\"-3\"", Money.class)).isEqualTo(Money.parse("-3"));
+        assertThatThrownBy(() -> objectMapper.readValue("1.23456", Money.class))
+                .isInstanceOf(InvalidFormatException.class);
+    }
+}
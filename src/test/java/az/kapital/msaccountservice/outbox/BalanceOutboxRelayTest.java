@@ -0,0 +1,103 @@
+package az.kapital.msaccountservice.outbox;
+
+import az.kapital.msaccountservice.config.OutboxProperties;
+import az.kapital.msaccountservice.domain.entity.BalanceOutboxEntity;
+import az.kapital.msaccountservice.domain.repository.BalanceOutboxRepository;
+import az.kapital.msaccountservice.model.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceOutboxRelayTest {
+
+    @Mock
+    private BalanceOutboxRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxProperties properties;
+    private InMemoryBalanceEventSink sink;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        sink = new InMemoryBalanceEventSink();
+        meterRegistry = new SimpleMeterRegistry();
+        relay = newRelay(sink);
+    }
+
+    private BalanceOutboxRelay newRelay(BalanceEventSink eventSink) {
+        return new BalanceOutboxRelay(repository, eventSink, properties,
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should publish rows in id order and delete them after publishing")
+    void flush_shouldPublishInOrderThenDelete() {
+        when(repository.tryRelayLock(BalanceOutboxRelay.RELAY_LOCK_ID)).thenReturn(true);
+        when(repository.findOldest(2)).thenReturn(List.of(row(1L), row(2L)), List.of(row(3L)));
+
+        relay.flush();
+
+        assertThat(sink.getMessages()).extracting(BalanceEventMessage::id).containsExactly(1L, 2L, 3L);
+        verify(repository).deleteByIds(List.of(1L, 2L));
+        verify(repository).deleteByIds(List.of(3L));
+        assertThat(meterRegistry.get("account.outbox.published").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should keep rows for redelivery when the sink fails")
+    void flush_shouldNotDelete_WhenSinkFails() {
+        BalanceEventSink failingSink = mock(BalanceEventSink.class);
+        doThrow(new IllegalStateException("sink unavailable")).when(failingSink).publish(anyList());
+        relay = newRelay(failingSink);
+        when(repository.tryRelayLock(BalanceOutboxRelay.RELAY_LOCK_ID)).thenReturn(true);
+        when(repository.findOldest(2)).thenReturn(List.of(row(1L)));
+
+        relay.flush();
+
+        verify(repository, never()).deleteByIds(anyList());
+        verify(transactionManager).rollback(null);
+        assertThat(meterRegistry.get("account.outbox.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should skip the run while another node holds the relay lock")
+    void flush_shouldSkip_WhenLockHeldElsewhere() {
+        when(repository.tryRelayLock(BalanceOutboxRelay.RELAY_LOCK_ID)).thenReturn(false);
+
+        relay.flush();
+
+        verify(repository, never()).findOldest(anyInt());
+        assertThat(sink.getMessages()).isEmpty();
+    }
+
+    private static BalanceOutboxEntity row(Long id) {
+        return new BalanceOutboxEntity(id, 10L, 1L, Currency.USD, BigDecimal.ONE, BigDecimal.TEN,
+                LocalDateTime.now());
+    }
+}
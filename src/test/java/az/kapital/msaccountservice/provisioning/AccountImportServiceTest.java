@@ -0,0 +1,143 @@
+package az.kapital.msaccountservice.provisioning;
+
+import az.kapital.msaccountservice.cache.BalanceCache;
+import az.kapital.msaccountservice.config.ImportProperties;
+import az.kapital.msaccountservice.config.LedgerProperties;
+import az.kapital.msaccountservice.domain.repository.AccountJdbcRepository;
+import az.kapital.msaccountservice.model.AccountImportReport;
+import az.kapital.msaccountservice.model.AccountKey;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.ExportFormat;
+import az.kapital.msaccountservice.model.ImportRowError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountImportServiceTest {
+
+    @Mock
+    private AccountJdbcRepository accountJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BalanceCache balanceCache;
+
+    private ImportProperties properties;
+    private AccountImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImportProperties();
+        importService = new AccountImportService(accountJdbcRepository, properties, new LedgerProperties(),
+                balanceCache, new ObjectMapper(), transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should import valid rows in chunks and report invalid ones by line")
+    void importAccounts_shouldWriteChunks_AndReportRowErrors() throws Exception {
+        properties.setChunkSize(2);
+        storedUsernamesEchoIds();
+        when(accountJdbcRepository.findAccountKeys(anyCollection())).thenReturn(Set.of());
+
+        AccountImportReport report = importService.importAccounts(ExportFormat.CSV, input(
+                AccountImportService.CSV_HEADER,
+                "1,alice@example.com,USD,10.00",
+                "1,alice@example.com,EUR,5",
+                "2,bob@example.com,GBP,1",
+                "3,carol@example.com,USD,-1",
+                "3,carol@example.com,AZN,0.12345",
+                "4,dave@example.com,USD,7.5"));
+
+        assertThat(report.getRows()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ImportRowError::getLine).containsExactly(4L, 5L, 6L);
+        verify(accountJdbcRepository, times(2)).insertAccounts(anyList(), anyList(), anyList(), anyBoolean());
+        verify(accountJdbcRepository).insertAccounts(List.of(1L, 1L), List.of(Currency.USD, Currency.EUR),
+                List.of(new BigDecimal("10.00"), new BigDecimal("5")), true);
+        verify(balanceCache).evict(1L);
+        verify(balanceCache).evict(4L);
+    }
+
+    @Test
+    @DisplayName("should reject accounts that already exist and usernames owned by another user")
+    void importAccounts_shouldRejectConflicts() throws Exception {
+        when(accountJdbcRepository.findUsernames(anyCollection()))
+                .thenReturn(Map.of(1L, "alice@example.com", 2L, "someone-else@example.com"));
+        when(accountJdbcRepository.findAccountKeys(anyCollection()))
+                .thenReturn(Set.of(new AccountKey(1L, Currency.USD)));
+
+        AccountImportReport report = importService.importAccounts(ExportFormat.NDJSON, input(
+                "{\"userId\":1,\"username\":\"alice@example.com\",\"currency\":\"USD\",\"balance\":1}",
+                "{\"userId\":2,\"username\":\"bob@example.com\",\"currency\":\"USD\",\"balance\":1}",
+                "{\"userId\":3,\"username\":\"carol@example.com\",\"currency\":\"USD\",\"balance\":1}",
+                "{not json"));
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(4);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Unreadable row");
+        assertThat(report.getErrors().subList(1, 4)).extracting(ImportRowError::getMessage).containsExactly(
+                "User 1 already has a USD account.",
+                "User 2 is already registered as someone-else@example.com.",
+                "Username carol@example.com already belongs to another user.");
+        verify(accountJdbcRepository, never()).insertAccounts(anyList(), anyList(), anyList(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("should cap the number of reported errors")
+    void importAccounts_shouldTruncateErrors() throws Exception {
+        properties.setMaxReportedErrors(1);
+
+        AccountImportReport report = importService.importAccounts(ExportFormat.CSV, input("x", "y", "z"));
+
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).hasSize(1);
+        assertThat(report.isErrorsTruncated()).isTrue();
+    }
+
+    private void storedUsernamesEchoIds() {
+        when(accountJdbcRepository.findUsernames(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, String> stored = new HashMap<>();
+            Collection<Long> ids = invocation.getArgument(0);
+            ids.forEach(id -> stored.put(id, switch (id.intValue()) {
+                case 1 -> "alice@example.com";
+                case 3 -> "carol@example.com";
+                default -> "dave@example.com";
+            }));
+            return stored;
+        });
+    }
+
+    private static InputStream input(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
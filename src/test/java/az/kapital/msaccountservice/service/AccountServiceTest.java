@@ -1,34 +1,57 @@
 package az.kapital.msaccountservice.service;
 
-import az.kapital.msaccountservice.client.AuthServiceClient;
+import az.kapital.msaccountservice.cache.BalanceCache;
+import az.kapital.msaccountservice.cache.InMemoryBalanceCacheInvalidationChannel;
+import az.kapital.msaccountservice.config.BalanceCacheProperties;
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
 import az.kapital.msaccountservice.domain.entity.AccountEntity;
+import az.kapital.msaccountservice.domain.entity.IdempotencyRecordEntity;
+import az.kapital.msaccountservice.domain.projection.UpdatedBalanceView;
 import az.kapital.msaccountservice.domain.entity.UserEntity;
 import az.kapital.msaccountservice.domain.repository.AccountRepository;
-import az.kapital.msaccountservice.domain.repository.UserRepository;
+import az.kapital.msaccountservice.event.BalanceChangedEvent;
 import az.kapital.msaccountservice.exception.ForbiddenAccessException;
 import az.kapital.msaccountservice.exception.InsufficientFundsException;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
 import az.kapital.msaccountservice.exception.InvalidTokenException;
 import az.kapital.msaccountservice.exception.UserNotFoundException;
 import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceResponse;
+import az.kapital.msaccountservice.model.BalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BalanceUpdateResult;
+import az.kapital.msaccountservice.model.BalanceUpdateStatus;
+import az.kapital.msaccountservice.model.BalanceUpdateStrategy;
 import az.kapital.msaccountservice.model.Currency;
-import az.kapital.msaccountservice.model.TokenValidationRequest;
+import az.kapital.msaccountservice.model.LockWaitMode;
+import az.kapital.msaccountservice.model.Money;
+import az.kapital.msaccountservice.model.TransferRequest;
+import az.kapital.msaccountservice.model.TransferResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -42,10 +65,26 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserIdResolver userIdResolver;
 
     @Mock
-    private AuthServiceClient authServiceClient;
+    private TokenValidationService tokenValidationService;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BalanceUpdateProperties balanceUpdateProperties = new BalanceUpdateProperties();
+
+    @Spy
+    private BalanceCache balanceCache = new BalanceCache(new BalanceCacheProperties(),
+            new InMemoryBalanceCacheInvalidationChannel(), new SimpleMeterRegistry());
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private AccountService accountService;
@@ -71,7 +110,7 @@ class AccountServiceTest {
 
         accountEntity = new AccountEntity();
         accountEntity.setId(1L);
-        accountEntity.setBalance(initialBalance);
+        accountEntity.setBalance(Money.of(initialBalance));
         accountEntity.setCurrency(currency);
         UserEntity user = new UserEntity();
         user.setId(requesterId);
@@ -82,19 +121,36 @@ class AccountServiceTest {
     @DisplayName("should return accounts when user is authorized")
     void getBalanceForUser_shouldReturnAccounts_WhenAuthorized() {
         String authHeader = "Bearer " + validToken;
-        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn(authenticatedUsername);
-        UserEntity mockUserEntity = new UserEntity();
-        mockUserEntity.setId(requesterId);
-        when(userRepository.findByUsername(authenticatedUsername)).thenReturn(Optional.of(mockUserEntity));
-        when(accountRepository.findByUserId(userId)).thenReturn(List.of(accountEntity));
+        when(tokenValidationService.resolveUsername(validToken)).thenReturn(authenticatedUsername);
+        when(userIdResolver.resolve(authenticatedUsername)).thenReturn(Optional.of(requesterId));
+        when(accountRepository.findBalancesByUserId(userId)).thenReturn(List.of(new BalanceResponse(currency, initialBalance)));
 
-        List<AccountEntity> result = accountService.getBalanceForUser(userId, authHeader);
+        List<BalanceResponse> result = accountService.getBalanceForUser(userId, authHeader);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getBalance()).isEqualByComparingTo(initialBalance);
-        verify(authServiceClient, times(1)).validateToken(any(TokenValidationRequest.class));
-        verify(userRepository, times(1)).findByUsername(authenticatedUsername);
-        verify(accountRepository, times(1)).findByUserId(userId);
+        assertThat(result.get(0).getCurrency()).isEqualTo(currency);
+        verify(tokenValidationService, times(1)).resolveUsername(validToken);
+        verify(userIdResolver, times(1)).resolve(authenticatedUsername);
+        verify(accountRepository, times(1)).findBalancesByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("should load cache misses from the primary and serve repeats from the cache")
+    void getBalanceForUser_shouldLoadMissFromPrimary_WhenCacheEnabled() {
+        String authHeader = "Bearer " + validToken;
+        doReturn(true).when(balanceCache).isEnabled();
+        when(tokenValidationService.resolveUsername(validToken)).thenReturn(authenticatedUsername);
+        when(userIdResolver.resolve(authenticatedUsername)).thenReturn(Optional.of(requesterId));
+        when(accountRepository.findBalancesByUserIdOnPrimary(userId))
+                .thenReturn(List.of(new BalanceResponse(currency, initialBalance)));
+
+        accountService.getBalanceForUser(userId, authHeader);
+        List<BalanceResponse> result = accountService.getBalanceForUser(userId, authHeader);
+
+        assertThat(result.get(0).getBalance()).isEqualByComparingTo(initialBalance);
+        verify(accountRepository, times(1)).findBalancesByUserIdOnPrimary(userId);
+        verify(accountRepository, never()).findBalancesByUserId(anyLong());
     }
 
     @Test
@@ -102,34 +158,32 @@ class AccountServiceTest {
     void getBalanceForUser_shouldThrowForbidden_WhenIdsDoNotMatch() {
         Long differentRequesterId = 2L;
         String authHeader = "Bearer " + validToken;
-        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn(authenticatedUsername);
-        when(userRepository.findByUsername(authenticatedUsername)).thenReturn(Optional.of(new UserEntity() {{
-            setId(differentRequesterId);
-        }}));
+        when(tokenValidationService.resolveUsername(validToken)).thenReturn(authenticatedUsername);
+        when(userIdResolver.resolve(authenticatedUsername)).thenReturn(Optional.of(differentRequesterId));
 
         assertThatThrownBy(() -> accountService.getBalanceForUser(userId, authHeader))
                 .isInstanceOf(ForbiddenAccessException.class)
                 .hasMessage("You are not allowed to view this user’s balance.");
 
-        verify(authServiceClient, times(1)).validateToken(any(TokenValidationRequest.class));
-        verify(userRepository, times(1)).findByUsername(authenticatedUsername);
-        verify(accountRepository, never()).findByUserId(anyLong());
+        verify(tokenValidationService, times(1)).resolveUsername(validToken);
+        verify(userIdResolver, times(1)).resolve(authenticatedUsername);
+        verify(accountRepository, never()).findBalancesByUserId(anyLong());
     }
 
     @Test
     @DisplayName("should throw user not found when requester missing")
     void getBalanceForUser_shouldThrowUserNotFound_WhenRequesterMissing() {
         String authHeader = "Bearer " + validToken;
-        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn(authenticatedUsername);
-        when(userRepository.findByUsername(authenticatedUsername)).thenReturn(Optional.empty());
+        when(tokenValidationService.resolveUsername(validToken)).thenReturn(authenticatedUsername);
+        when(userIdResolver.resolve(authenticatedUsername)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> accountService.getBalanceForUser(userId, authHeader))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("Requester not found in local DB.");
 
-        verify(authServiceClient, times(1)).validateToken(any(TokenValidationRequest.class));
-        verify(userRepository, times(1)).findByUsername(authenticatedUsername);
-        verify(accountRepository, never()).findByUserId(anyLong());
+        verify(tokenValidationService, times(1)).resolveUsername(validToken);
+        verify(userIdResolver, times(1)).resolve(authenticatedUsername);
+        verify(accountRepository, never()).findBalancesByUserId(anyLong());
     }
 
     @Test
@@ -141,12 +195,13 @@ class AccountServiceTest {
                 .isInstanceOf(InvalidTokenException.class)
                 .hasMessage("Missing Authorization header or Bearer token");
 
-        verifyNoInteractions(authServiceClient, userRepository, accountRepository);
+        verifyNoInteractions(tokenValidationService, userIdResolver, accountRepository);
     }
 
     @Test
     @DisplayName("should update balance successfully when sufficient funds")
     void updateBalance_shouldUpdateSuccessfully_WhenSufficientFunds() {
+        balanceUpdateProperties.setStrategy(BalanceUpdateStrategy.LOCKING);
         BigDecimal expectedBalance = initialBalance.add(addAmount);
         when(accountRepository.findByUserIdAndCurrencyWithLock(userId, currency)).thenReturn(Optional.of(accountEntity));
         doReturn(accountEntity).when(accountRepository).save(accountEntity);
@@ -162,12 +217,13 @@ class AccountServiceTest {
     @Test
     @DisplayName("should throw insufficient funds when balance would go negative")
     void updateBalance_shouldThrowInsufficient_WhenNegativeBalance() {
+        balanceUpdateProperties.setStrategy(BalanceUpdateStrategy.LOCKING);
         BigDecimal subtractAmount = new BigDecimal("-150.00");
         when(accountRepository.findByUserIdAndCurrencyWithLock(userId, currency)).thenReturn(Optional.of(accountEntity));
 
         assertThatThrownBy(() -> accountService.updateBalance(userId, currency, subtractAmount))
                 .isInstanceOf(InsufficientFundsException.class)
-                .hasMessage("Insufficient funds. Current: 100.00 USD, Tried to spend: 150.00");
+                .hasMessage("Insufficient funds. Current: 100.0000 USD, Tried to spend: 150.00");
 
         verify(accountRepository, times(1)).findByUserIdAndCurrencyWithLock(userId, currency);
         verify(accountRepository, never()).save(any(AccountEntity.class));
@@ -176,6 +232,7 @@ class AccountServiceTest {
     @Test
     @DisplayName("should throw runtime exception when account not found")
     void updateBalance_shouldThrowRuntime_WhenAccountNotFound() {
+        balanceUpdateProperties.setStrategy(BalanceUpdateStrategy.LOCKING);
         when(accountRepository.findByUserIdAndCurrencyWithLock(userId, currency)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> accountService.updateBalance(userId, currency, addAmount))
@@ -185,4 +242,313 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).findByUserIdAndCurrencyWithLock(userId, currency);
         verify(accountRepository, never()).save(any(AccountEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should bound the lock wait with a transaction-local timeout and time it")
+    void updateBalance_shouldSetLockTimeout_WhenWaitMode() {
+        balanceUpdateProperties.setStrategy(BalanceUpdateStrategy.LOCKING);
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, currency)).thenReturn(Optional.of(accountEntity));
+        doReturn(accountEntity).when(accountRepository).save(accountEntity);
+
+        accountService.updateBalance(userId, currency, addAmount);
+
+        InOrder order = inOrder(accountRepository);
+        order.verify(accountRepository).setLocalLockTimeout("2000ms");
+        order.verify(accountRepository).findByUserIdAndCurrencyWithLock(userId, currency);
+        assertThat(meterRegistry.get("account.lock.wait").tags("mode", "wait", "outcome", "acquired")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should report a held account as busy instead of missing in skip-locked mode")
+    void updateBalance_shouldThrowCannotAcquireLock_WhenSkipLockedRowHeld() {
+        balanceUpdateProperties.setStrategy(BalanceUpdateStrategy.LOCKING);
+        balanceUpdateProperties.getLock().setMode(LockWaitMode.SKIP_LOCKED);
+        when(accountRepository.findByUserIdAndCurrencyWithLockSkipLocked(userId, currency)).thenReturn(Optional.empty());
+        when(accountRepository.findByUserIdAndCurrency(userId, currency)).thenReturn(Optional.of(accountEntity));
+
+        assertThatThrownBy(() -> accountService.updateBalance(userId, currency, addAmount))
+                .isInstanceOf(CannotAcquireLockException.class);
+
+        verify(accountRepository, never()).setLocalLockTimeout(any());
+        verify(accountRepository, never()).save(any(AccountEntity.class));
+        assertThat(meterRegistry.get("account.lock.wait").tags("mode", "skip_locked", "outcome", "failed")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should update balance with a single conditional statement")
+    void updateBalance_shouldUseAtomicUpdate_WhenStrategyAtomic() {
+        BigDecimal expectedBalance = initialBalance.add(addAmount);
+        when(accountRepository.addToBalanceIfSufficient(userId, currency.name(), addAmount))
+                .thenReturn(Optional.of(updatedView(1L, userId, expectedBalance)));
+
+        AccountResponse result = accountService.updateBalance(userId, currency, addAmount);
+
+        assertThat(result.getBalance()).isEqualByComparingTo(expectedBalance);
+        assertThat(result.getUserId()).isEqualTo(userId);
+        assertThat(result.getCurrency()).isEqualTo(currency);
+        verify(accountRepository, never()).findByUserIdAndCurrencyWithLock(anyLong(), any(Currency.class));
+        verify(accountRepository, never()).save(any(AccountEntity.class));
+        verify(eventPublisher).publishEvent(new BalanceChangedEvent(1L, userId, currency, addAmount, expectedBalance));
+    }
+
+    @Test
+    @DisplayName("should reject an amount with more than four decimal places before the conditional update")
+    void updateBalance_shouldThrowInvalidRequest_WhenAtomicAmountScaleTooLarge() {
+        assertThatThrownBy(() -> accountService.updateBalance(userId, currency, new BigDecimal("0.00001")))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("amount has more than 4 decimal places.");
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("should throw insufficient funds when conditional update matches no row")
+    void updateBalance_shouldThrowInsufficient_WhenAtomicUpdateRejected() {
+        BigDecimal subtractAmount = new BigDecimal("-150.00");
+        when(accountRepository.addToBalanceIfSufficient(userId, currency.name(), subtractAmount))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findByUserIdAndCurrency(userId, currency)).thenReturn(Optional.of(accountEntity));
+
+        assertThatThrownBy(() -> accountService.updateBalance(userId, currency, subtractAmount))
+                .isInstanceOf(InsufficientFundsException.class)
+                .hasMessage("Insufficient funds. Current: 100.0000 USD, Tried to spend: 150.00");
+    }
+
+    @Test
+    @DisplayName("should throw runtime exception when conditional update finds no account")
+    void updateBalance_shouldThrowRuntime_WhenAtomicUpdateFindsNoAccount() {
+        when(accountRepository.addToBalanceIfSufficient(userId, currency.name(), addAmount))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findByUserIdAndCurrency(userId, currency)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> accountService.updateBalance(userId, currency, addAmount))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Account not found.");
+    }
+
+    @Test
+    @DisplayName("should lock each account once in canonical order and apply updates in request order")
+    void updateBalances_shouldLockInOrderAndAggregatePerAccount() {
+        AccountEntity eurAccount = new AccountEntity(2L, accountEntity.getUser(), Currency.EUR, Money.parse("10.00"));
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, Currency.EUR)).thenReturn(Optional.of(eurAccount));
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, Currency.USD)).thenReturn(Optional.of(accountEntity));
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                new BalanceUpdateRequest(userId, Currency.USD, new BigDecimal("-30.00")),
+                new BalanceUpdateRequest(userId, Currency.EUR, new BigDecimal("5.00")),
+                new BalanceUpdateRequest(userId, Currency.USD, new BigDecimal("-80.00")),
+                new BalanceUpdateRequest(userId, Currency.USD, new BigDecimal("-70.00"))
+        ));
+
+        assertThat(results).extracting(BalanceUpdateResult::getStatus).containsExactly(
+                BalanceUpdateStatus.APPLIED,
+                BalanceUpdateStatus.APPLIED,
+                BalanceUpdateStatus.INSUFFICIENT_FUNDS,
+                BalanceUpdateStatus.APPLIED);
+        assertThat(results.get(2).getError()).isEqualTo("Insufficient funds. Current: 70.0000 USD, Tried to spend: 80.00");
+        assertThat(accountEntity.getBalance()).isEqualTo(Money.parse("0.00"));
+        assertThat(eurAccount.getBalance()).isEqualTo(Money.parse("15.00"));
+
+        InOrder lockOrder = inOrder(accountRepository);
+        lockOrder.verify(accountRepository).findByUserIdAndCurrencyWithLock(userId, Currency.EUR);
+        lockOrder.verify(accountRepository).findByUserIdAndCurrencyWithLock(userId, Currency.USD);
+        verify(accountRepository, times(2)).findByUserIdAndCurrencyWithLock(anyLong(), any(Currency.class));
+    }
+
+    @Test
+    @DisplayName("should report missing accounts and invalid items without failing the batch")
+    void updateBalances_shouldReportPerItemFailures() {
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, currency)).thenReturn(Optional.empty());
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                new BalanceUpdateRequest(userId, currency, addAmount),
+                new BalanceUpdateRequest(null, currency, addAmount)
+        ));
+
+        assertThat(results).extracting(BalanceUpdateResult::getStatus).containsExactly(
+                BalanceUpdateStatus.ACCOUNT_NOT_FOUND,
+                BalanceUpdateStatus.INVALID_REQUEST);
+    }
+
+    @Test
+    @DisplayName("should record idempotency key in the update transaction")
+    void updateBalance_shouldRecordIdempotencyKey_WhenKeyPresent() {
+        BigDecimal expectedBalance = initialBalance.add(addAmount);
+        when(accountRepository.addToBalanceIfSufficient(userId, currency.name(), addAmount))
+                .thenReturn(Optional.of(updatedView(1L, userId, expectedBalance)));
+
+        AccountResponse result = accountService.updateBalance(userId, currency, addAmount, "key-1");
+
+        verify(idempotencyStore).lockKeys(List.of("key-1"));
+        verify(idempotencyStore, times(1)).record("key-1", addAmount, result);
+    }
+
+    @Test
+    @DisplayName("should replay recorded keys in a batch without locking the account")
+    void updateBalances_shouldReplayRecordedKeys() {
+        IdempotencyRecordEntity stored = new IdempotencyRecordEntity("key-1", 1L, userId, currency, addAmount,
+                new BigDecimal("150.00"), LocalDateTime.now());
+        when(idempotencyStore.findAll(List.of("key-1", "key-1"))).thenReturn(Map.of("key-1", stored));
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                new BalanceUpdateRequest(userId, currency, addAmount, "key-1"),
+                new BalanceUpdateRequest(userId, currency, addAmount, "key-1")
+        ));
+
+        assertThat(results).extracting(BalanceUpdateResult::getStatus)
+                .containsExactly(BalanceUpdateStatus.REPLAYED, BalanceUpdateStatus.REPLAYED);
+        assertThat(results.get(0).getBalance()).isEqualByComparingTo("150.00");
+        verify(accountRepository, never()).findByUserIdAndCurrencyWithLock(anyLong(), any(Currency.class));
+    }
+
+    @Test
+    @DisplayName("should report a conflict when a recorded key is reused for another amount")
+    void updateBalances_shouldReportConflict_WhenKeyReusedWithDifferentPayload() {
+        IdempotencyRecordEntity stored = new IdempotencyRecordEntity("key-1", 1L, userId, currency, addAmount,
+                new BigDecimal("150.00"), LocalDateTime.now());
+        when(idempotencyStore.findAll(List.of("key-1"))).thenReturn(Map.of("key-1", stored));
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                new BalanceUpdateRequest(userId, currency, new BigDecimal("75.00"), "key-1")));
+
+        assertThat(results).extracting(BalanceUpdateResult::getStatus)
+                .containsExactly(BalanceUpdateStatus.IDEMPOTENCY_CONFLICT);
+        verify(accountRepository, never()).findByUserIdAndCurrencyWithLock(anyLong(), any(Currency.class));
+    }
+
+    @Test
+    @DisplayName("should apply a key once when it repeats inside one batch")
+    void updateBalances_shouldApplyRepeatedKeyOnce() {
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, currency)).thenReturn(Optional.of(accountEntity));
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                new BalanceUpdateRequest(userId, currency, addAmount, "key-1"),
+                new BalanceUpdateRequest(userId, currency, addAmount, "key-1")
+        ));
+
+        assertThat(results).extracting(BalanceUpdateResult::getStatus)
+                .containsExactly(BalanceUpdateStatus.APPLIED, BalanceUpdateStatus.REPLAYED);
+        assertThat(accountEntity.getBalance()).isEqualTo(Money.parse("150.00"));
+        verify(idempotencyStore, times(1)).recordAll(anyList());
+    }
+
+    @Test
+    @DisplayName("should reject batch above the configured limit")
+    void updateBalances_shouldThrowInvalidRequest_WhenBatchTooLarge() {
+        balanceUpdateProperties.setMaxBatchSize(1);
+
+        assertThatThrownBy(() -> accountService.updateBalances(List.of(
+                new BalanceUpdateRequest(userId, currency, addAmount),
+                new BalanceUpdateRequest(userId, currency, addAmount))))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Batch size 2 exceeds the limit of 1.");
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("should lock both transfer accounts in canonical order regardless of direction")
+    void transfer_shouldLockInCanonicalOrder() {
+        UserEntity otherUser = new UserEntity();
+        otherUser.setId(2L);
+        AccountEntity source = new AccountEntity(3L, otherUser, Currency.EUR, Money.parse("50.00"));
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, Currency.USD)).thenReturn(Optional.of(accountEntity));
+        when(accountRepository.findByUserIdAndCurrencyWithLock(2L, Currency.EUR)).thenReturn(Optional.of(source));
+
+        TransferResponse response = accountService.transfer(TransferRequest.builder()
+                .fromUserId(2L).fromCurrency(Currency.EUR)
+                .toUserId(userId).toCurrency(Currency.USD)
+                .amount(new BigDecimal("20.00")).fxRate(new BigDecimal("1.08"))
+                .build());
+
+        assertThat(response.getCredited()).isEqualByComparingTo("21.60");
+        assertThat(source.getBalance()).isEqualTo(Money.parse("30.00"));
+        assertThat(accountEntity.getBalance()).isEqualTo(Money.parse("121.60"));
+        InOrder lockOrder = inOrder(accountRepository);
+        lockOrder.verify(accountRepository).findByUserIdAndCurrencyWithLock(userId, Currency.USD);
+        lockOrder.verify(accountRepository).findByUserIdAndCurrencyWithLock(2L, Currency.EUR);
+        verify(eventPublisher, times(2)).publishEvent(any(BalanceChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("should throw insufficient funds and leave both balances unchanged")
+    void transfer_shouldThrowInsufficient_WhenSourceTooLow() {
+        AccountEntity target = new AccountEntity(2L, accountEntity.getUser(), Currency.EUR, Money.parse("10.00"));
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, Currency.USD)).thenReturn(Optional.of(accountEntity));
+        when(accountRepository.findByUserIdAndCurrencyWithLock(userId, Currency.EUR)).thenReturn(Optional.of(target));
+
+        assertThatThrownBy(() -> accountService.transfer(TransferRequest.builder()
+                .fromUserId(userId).fromCurrency(Currency.USD)
+                .toUserId(userId).toCurrency(Currency.EUR)
+                .amount(new BigDecimal("150.00")).fxRate(new BigDecimal("0.9"))
+                .build()))
+                .isInstanceOf(InsufficientFundsException.class)
+                .hasMessage("Insufficient funds. Current: 100.0000 USD, Tried to spend: 150.00");
+
+        assertThat(accountEntity.getBalance()).isEqualTo(Money.of(initialBalance));
+        assertThat(target.getBalance()).isEqualTo(Money.parse("10.00"));
+    }
+
+    @Test
+    @DisplayName("should require an fx rate for cross-currency transfers")
+    void transfer_shouldThrowInvalidRequest_WhenFxRateMissing() {
+        assertThatThrownBy(() -> accountService.transfer(TransferRequest.builder()
+                .fromUserId(userId).fromCurrency(Currency.USD)
+                .toUserId(2L).toCurrency(Currency.AZN)
+                .amount(BigDecimal.TEN)
+                .build()))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("should reject a transfer amount with more than four decimal places")
+    void transfer_shouldThrowInvalidRequest_WhenAmountScaleTooLarge() {
+        assertThatThrownBy(() -> accountService.transfer(TransferRequest.builder()
+                .fromUserId(userId).fromCurrency(Currency.USD)
+                .toUserId(2L).toCurrency(Currency.USD)
+                .amount(new BigDecimal("1.00001"))
+                .build()))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("amount has more than 4 decimal places.");
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("should reject a converted amount that does not fit a balance instead of failing with a server error")
+    void transfer_shouldThrowInvalidRequest_WhenCreditedAmountOutOfRange() {
+        assertThatThrownBy(() -> accountService.transfer(TransferRequest.builder()
+                .fromUserId(userId).fromCurrency(Currency.USD)
+                .toUserId(2L).toCurrency(Currency.AZN)
+                .amount(new BigDecimal("1000000000000"))
+                .fxRate(new BigDecimal("1000000000"))
+                .build()))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Transfer amount is out of range in AZN.");
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    private static UpdatedBalanceView updatedView(Long id, Long userId, BigDecimal balance) {
+        return new UpdatedBalanceView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return balance;
+            }
+        };
+    }
+}
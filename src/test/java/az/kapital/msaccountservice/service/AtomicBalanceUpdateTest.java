@@ -0,0 +1,99 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.exception.InsufficientFundsException;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.Currency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@code updateBalance} under the ATOMIC strategy against Postgres, so the conditional
+ * {@code UPDATE ... RETURNING} and its projection onto {@code UpdatedBalanceView} are exercised
+ * for real rather than through a mocked repository.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class AtomicBalanceUpdateTest {
+
+    private static final long USER_ID = 4_000_000L;
+    private static final long MISSING_USER_ID = 4_000_001L;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("100.0000");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.show-sql", () -> false);
+        registry.add("account.balance-update.strategy", () -> "ATOMIC");
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long accountId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM account WHERE user_id IN (?, ?)", USER_ID, MISSING_USER_ID);
+        jdbcTemplate.update("DELETE FROM account_user WHERE id IN (?, ?)", USER_ID, MISSING_USER_ID);
+        jdbcTemplate.update("INSERT INTO account_user (id, username) VALUES (?, ?)", USER_ID, "atomic-" + USER_ID);
+        accountId = jdbcTemplate.queryForObject("INSERT INTO account (user_id, currency, balance) "
+                + "VALUES (?, 'USD', ?) RETURNING id", Long.class, USER_ID, OPENING_BALANCE);
+    }
+
+    @Test
+    @DisplayName("should return the account id, userId and new balance from the conditional update")
+    void updateBalance_shouldReturnUpdatedRow_WhenFundsSufficient() {
+        AccountResponse response = accountService.updateBalance(USER_ID, Currency.USD, new BigDecimal("-40.25"));
+
+        assertThat(response.getId()).isEqualTo(accountId);
+        assertThat(response.getUserId()).isEqualTo(USER_ID);
+        assertThat(response.getCurrency()).isEqualTo(Currency.USD);
+        assertThat(response.getBalance()).isEqualByComparingTo("59.75");
+        assertThat(balance()).isEqualByComparingTo("59.75");
+    }
+
+    @Test
+    @DisplayName("should reject the update and leave the balance alone when funds are insufficient")
+    void updateBalance_shouldThrowInsufficientFunds_WhenBalanceWouldGoNegative() {
+        assertThatThrownBy(() -> accountService.updateBalance(USER_ID, Currency.USD, new BigDecimal("-100.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(balance()).isEqualByComparingTo(OPENING_BALANCE);
+    }
+
+    @Test
+    @DisplayName("should report a missing account rather than insufficient funds")
+    void updateBalance_shouldThrowNotFound_WhenAccountMissing() {
+        assertThatThrownBy(() -> accountService.updateBalance(MISSING_USER_ID, Currency.USD, BigDecimal.TEN))
+                .isNotInstanceOf(InsufficientFundsException.class)
+                .hasMessage("Account not found.");
+        assertThatThrownBy(() -> accountService.updateBalance(USER_ID, Currency.EUR, BigDecimal.TEN))
+                .hasMessage("Account not found.");
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM account WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
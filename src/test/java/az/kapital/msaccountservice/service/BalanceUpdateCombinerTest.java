@@ -0,0 +1,184 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.BalanceUpdateProperties;
+import az.kapital.msaccountservice.exception.InsufficientFundsException;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BalanceUpdateResult;
+import az.kapital.msaccountservice.model.BalanceUpdateStatus;
+import az.kapital.msaccountservice.model.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceUpdateCombinerTest {
+
+    @Mock
+    private AccountService accountService;
+
+    private BalanceUpdateProperties properties;
+    private BalanceUpdateCombiner combiner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BalanceUpdateProperties();
+        properties.getCombining().setEnabled(true);
+        properties.getCombining().setWindow(Duration.ofMillis(50));
+        combiner = new BalanceUpdateCombiner(accountService, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should apply concurrent updates to one account in a shared transaction")
+    void updateBalance_shouldCombineConcurrentUpdates() throws Exception {
+        AtomicInteger transactions = new AtomicInteger();
+        when(accountService.updateBalances(anyList())).thenAnswer(invocation -> {
+            transactions.incrementAndGet();
+            return applyInOrder(invocation.getArgument(0), new BigDecimal("100"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<AccountResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                responses.add(executor.submit(() -> combiner.updateBalance(1L, Currency.USD, BigDecimal.ONE)));
+            }
+            for (Future<AccountResponse> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS).getCurrency()).isEqualTo(Currency.USD);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(transactions.get()).isLessThan(10);
+        verify(accountService, never()).updateBalance(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should hand draining over so every caller completes when groups hold one update")
+    void updateBalance_shouldHandOff_WhenDrainerIsDone() throws Exception {
+        properties.getCombining().setMaxBatchSize(1);
+        when(accountService.updateBalances(anyList()))
+                .thenAnswer(invocation -> applyInOrder(invocation.getArgument(0), new BigDecimal("100")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AccountResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> combiner.updateBalance(1L, Currency.USD, BigDecimal.ONE)));
+            }
+            for (Future<AccountResponse> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS).getCurrency()).isEqualTo(Currency.USD);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should fail every caller of a group when applying it throws an Error")
+    void updateBalance_shouldReleaseWaiters_WhenGroupThrowsError() throws Exception {
+        when(accountService.updateBalances(anyList())).thenThrow(new AssertionError("boom"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<AccountResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(executor.submit(() -> combiner.updateBalance(1L, Currency.USD, BigDecimal.ONE)));
+            }
+            for (Future<AccountResponse> response : responses) {
+                assertThatThrownBy(() -> response.get(5, TimeUnit.SECONDS))
+                        .isInstanceOf(ExecutionException.class)
+                        .hasCauseInstanceOf(AssertionError.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should surface insufficient funds to the caller whose update was rejected")
+    void updateBalance_shouldThrowInsufficient_ForRejectedCaller() {
+        when(accountService.updateBalances(anyList()))
+                .thenAnswer(invocation -> applyInOrder(invocation.getArgument(0), new BigDecimal("10")));
+
+        assertThatThrownBy(() -> combiner.updateBalance(1L, Currency.USD, new BigDecimal("-20")))
+                .isInstanceOf(InsufficientFundsException.class);
+    }
+
+    @Test
+    @DisplayName("should surface an invalid item as a bad request rather than a server error")
+    void updateBalance_shouldThrowInvalidRequest_ForInvalidItem() {
+        when(accountService.updateBalances(anyList())).thenReturn(List.of(BalanceUpdateResult.builder()
+                .index(0)
+                .userId(1L)
+                .currency(Currency.USD)
+                .amount(new BigDecimal("0.00001"))
+                .status(BalanceUpdateStatus.INVALID_REQUEST)
+                .error("amount has more than 4 decimal places.")
+                .build()));
+
+        assertThatThrownBy(() -> combiner.updateBalance(1L, Currency.USD, new BigDecimal("0.00001")))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("amount has more than 4 decimal places.");
+    }
+
+    @Test
+    @DisplayName("should delegate directly when combining is disabled")
+    void updateBalance_shouldDelegate_WhenDisabled() {
+        properties.getCombining().setEnabled(false);
+
+        combiner.updateBalance(1L, Currency.USD, BigDecimal.ONE);
+
+        verify(accountService).updateBalance(1L, Currency.USD, BigDecimal.ONE, null);
+        verify(accountService, never()).updateBalances(anyList());
+    }
+
+    private static List<BalanceUpdateResult> applyInOrder(List<BalanceUpdateRequest> requests, BigDecimal start) {
+        BigDecimal balance = start;
+        List<BalanceUpdateResult> results = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BalanceUpdateRequest request = requests.get(i);
+            BigDecimal newBalance = balance.add(request.getAmount());
+            boolean applied = newBalance.signum() >= 0;
+            if (applied) {
+                balance = newBalance;
+            }
+            results.add(BalanceUpdateResult.builder()
+                    .index(i)
+                    .accountId(1L)
+                    .userId(request.getUserId())
+                    .currency(request.getCurrency())
+                    .amount(request.getAmount())
+                    .status(applied ? BalanceUpdateStatus.APPLIED : BalanceUpdateStatus.INSUFFICIENT_FUNDS)
+                    .balance(balance)
+                    .error(applied ? null : "Insufficient funds.")
+                    .build());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,115 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.BulkBalanceProperties;
+import az.kapital.msaccountservice.domain.repository.AccountJdbcRepository;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
+import az.kapital.msaccountservice.model.BulkBalanceRequest;
+import az.kapital.msaccountservice.model.BulkBalanceResponse;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkBalanceServiceTest {
+
+    @Mock
+    private AccountJdbcRepository accountJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkBalanceProperties properties;
+    private BulkBalanceService bulkBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkBalanceProperties();
+        properties.setChunkSize(2);
+        properties.setMaxUserIds(10);
+        bulkBalanceService = new BulkBalanceService(accountJdbcRepository, properties, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkBalanceService.destroy();
+    }
+
+    @Test
+    @DisplayName("should query deduplicated userIds in chunks and return balances in request order")
+    void getBalances_shouldQueryInChunks_AndKeepRequestOrder() {
+        when(accountJdbcRepository.findBalances(anyCollection(), eq(EnumSet.of(Currency.USD))))
+                .thenAnswer(invocation -> balances(invocation.getArgument(0)));
+
+        BulkBalanceResponse response = bulkBalanceService.getBalances(
+                new BulkBalanceRequest(List.of(5L, 3L, 5L, 1L, 4L, 2L), List.of(Currency.USD)));
+
+        verify(accountJdbcRepository, times(3)).findBalances(anyCollection(), any());
+        // Odd userIds have no USD account and are left out.
+        assertThat(response.getBalances()).containsOnlyKeys(4L, 2L);
+        assertThat(response.getBalances().keySet()).containsExactly(4L, 2L);
+        assertThat(response.getBalances().get(4L)).containsEntry(Currency.USD, Money.ofMinor(4_0000));
+    }
+
+    @Test
+    @DisplayName("should ask for every currency when none are given")
+    void getBalances_shouldUseAllCurrencies_WhenNoneGiven() {
+        when(accountJdbcRepository.findBalances(List.of(2L), EnumSet.allOf(Currency.class)))
+                .thenReturn(balances(List.of(2L)));
+
+        BulkBalanceResponse response = bulkBalanceService.getBalances(new BulkBalanceRequest(List.of(2L), null));
+
+        assertThat(response.getBalances()).containsOnlyKeys(2L);
+    }
+
+    @Test
+    @DisplayName("should reject more userIds than allowed without querying")
+    void getBalances_shouldThrowInvalidRequest_WhenTooManyUserIds() {
+        List<Long> userIds = LongStream.rangeClosed(1, 11).boxed().toList();
+
+        assertThatThrownBy(() -> bulkBalanceService.getBalances(new BulkBalanceRequest(userIds, null)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("At most 10");
+        assertThatThrownBy(() -> bulkBalanceService.getBalances(new BulkBalanceRequest(List.of(), null)))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(accountJdbcRepository, never()).findBalances(anyCollection(), any());
+    }
+
+    private static Map<Long, Map<Currency, Money>> balances(Collection<Long> userIds) {
+        Map<Long, Map<Currency, Money>> balances = new HashMap<>();
+        for (Long userId : userIds) {
+            if (userId % 2 == 0) {
+                Map<Currency, Money> userBalances = new EnumMap<>(Currency.class);
+                userBalances.put(Currency.USD, Money.ofMinor(userId * 1_0000));
+                balances.put(userId, userBalances);
+            }
+        }
+        return balances;
+    }
+}
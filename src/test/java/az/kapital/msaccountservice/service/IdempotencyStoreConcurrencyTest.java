@@ -0,0 +1,128 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.BalanceUpdateRequest;
+import az.kapital.msaccountservice.model.BalanceUpdateResult;
+import az.kapital.msaccountservice.model.BalanceUpdateStatus;
+import az.kapital.msaccountservice.model.Currency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends the same keyed update from many threads at once. Exactly one may apply; the others
+ * must wait for it on the key lock and replay its response instead of failing on the primary
+ * key of balance_update_idempotency.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class IdempotencyStoreConcurrencyTest {
+
+    private static final long USER_ID = 3_000_000L;
+    private static final int THREADS = 8;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("100.0000");
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+        registry.add("spring.jpa.show-sql", () -> false);
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM balance_update_idempotency WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM account WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM account_user WHERE id = ?", USER_ID);
+        jdbcTemplate.update("INSERT INTO account_user (id, username) VALUES (?, ?)", USER_ID, "idempotency-" + USER_ID);
+        jdbcTemplate.update("INSERT INTO account (user_id, currency, balance) VALUES (?, 'USD', ?)",
+                USER_ID, OPENING_BALANCE);
+    }
+
+    @Test
+    @DisplayName("should apply a key once and replay it to concurrent duplicates")
+    void updateBalance_shouldApplyOnce_UnderConcurrentDuplicates() throws Exception {
+        List<AccountResponse> responses = runConcurrently(() ->
+                accountService.updateBalance(USER_ID, Currency.USD, AMOUNT, "dup-single"));
+
+        assertThat(responses).hasSize(THREADS).allSatisfy(response -> {
+            assertThat(response.getUserId()).isEqualTo(USER_ID);
+            assertThat(response.getBalance()).isEqualByComparingTo("110.0000");
+        });
+        assertAppliedOnce("dup-single");
+    }
+
+    @Test
+    @DisplayName("should apply a key once when concurrent batches carry it")
+    void updateBalances_shouldApplyOnce_UnderConcurrentDuplicates() throws Exception {
+        List<List<BalanceUpdateResult>> results = runConcurrently(() -> accountService.updateBalances(
+                List.of(new BalanceUpdateRequest(USER_ID, Currency.USD, AMOUNT, "dup-batch"))));
+
+        assertThat(results).extracting(batch -> batch.get(0).getStatus())
+                .containsOnly(BalanceUpdateStatus.APPLIED, BalanceUpdateStatus.REPLAYED)
+                .filteredOn(status -> status == BalanceUpdateStatus.APPLIED)
+                .hasSize(1);
+        assertAppliedOnce("dup-batch");
+    }
+
+    private void assertAppliedOnce(String key) {
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM account WHERE user_id = ? AND currency = 'USD'",
+                BigDecimal.class, USER_ID)).isEqualByComparingTo("110.0000");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_update_idempotency "
+                + "WHERE idempotency_key = ?", Integer.class, key)).isEqualTo(1);
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(1, TimeUnit.MINUTES));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
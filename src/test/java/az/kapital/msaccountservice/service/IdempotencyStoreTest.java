@@ -0,0 +1,103 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.IdempotencyProperties;
+import az.kapital.msaccountservice.domain.entity.IdempotencyRecordEntity;
+import az.kapital.msaccountservice.domain.repository.IdempotencyRecordRepository;
+import az.kapital.msaccountservice.exception.IdempotencyKeyConflictException;
+import az.kapital.msaccountservice.exception.InvalidRequestException;
+import az.kapital.msaccountservice.model.AccountResponse;
+import az.kapital.msaccountservice.model.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("50.00");
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, new IdempotencyProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should replay a stored record for the same payload and cache it")
+    void find_shouldReplayStoredResponse_WhenPayloadMatches() {
+        when(repository.findById("key-1")).thenReturn(Optional.of(record("key-1")));
+
+        Optional<AccountResponse> first = store.find("key-1", 1L, Currency.USD, new BigDecimal("50.0000"));
+        Optional<AccountResponse> second = store.find("key-1", 1L, Currency.USD, AMOUNT);
+
+        assertThat(first).contains(new AccountResponse(7L, 1L, Currency.USD, new BigDecimal("150.0000")));
+        assertThat(second).isEqualTo(first);
+        verify(repository, times(1)).findById("key-1");
+    }
+
+    @Test
+    @DisplayName("should reject a key reused for a different amount, currency or user")
+    void find_shouldThrowConflict_WhenPayloadDiffers() {
+        when(repository.findById("key-1")).thenReturn(Optional.of(record("key-1")));
+
+        assertThatThrownBy(() -> store.find("key-1", 1L, Currency.USD, new BigDecimal("60.00")))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        assertThatThrownBy(() -> store.find("key-1", 1L, Currency.EUR, AMOUNT))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        assertThatThrownBy(() -> store.find("key-1", 2L, Currency.USD, AMOUNT))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    @DisplayName("should reject keys longer than the column before touching the database")
+    void find_shouldThrowInvalidRequest_WhenKeyTooLong() {
+        String key = "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1);
+
+        assertThatThrownBy(() -> store.find(key, 1L, Currency.USD, AMOUNT))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("should lock each key once and in sorted order")
+    void lockKeys_shouldLockDistinctKeysInOrder() {
+        store.lockKeys(List.of("key-b", "key-a", "key-b"));
+
+        verify(repository).lockKeys(List.of("key-a", "key-b"));
+    }
+
+    @Test
+    @DisplayName("should replay a recorded key without another database read")
+    void record_shouldMakeKeyReplayable() {
+        store.record("key-1", AMOUNT, new AccountResponse(7L, 1L, Currency.USD, new BigDecimal("150.0000")));
+
+        assertThat(store.find("key-1", 1L, Currency.USD, AMOUNT)).isPresent();
+        verify(repository, never()).findById(anyString());
+    }
+
+    private static IdempotencyRecordEntity record(String key) {
+        return new IdempotencyRecordEntity(key, 7L, 1L, Currency.USD, new BigDecimal("50.0000"),
+                new BigDecimal("150.0000"), LocalDateTime.now());
+    }
+}
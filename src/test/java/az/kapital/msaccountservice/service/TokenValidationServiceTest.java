@@ -0,0 +1,226 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.client.AuthServiceClient;
+import az.kapital.msaccountservice.config.JwtVerificationProperties;
+import az.kapital.msaccountservice.config.TokenCacheProperties;
+import az.kapital.msaccountservice.exception.InvalidTokenException;
+import az.kapital.msaccountservice.model.TokenValidationRequest;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenValidationServiceTest {
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    @Mock
+    private ObjectProvider<JwtDecoder> jwtDecoderProvider;
+
+    private TokenCacheProperties properties;
+    private JwtVerificationProperties verificationProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenValidationService tokenValidationService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TokenCacheProperties();
+        verificationProperties = new JwtVerificationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        tokenValidationService = newService();
+    }
+
+    private TokenValidationService newService() {
+        return new TokenValidationService(authServiceClient, properties, verificationProperties,
+                jwtDecoderProvider, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should call auth service once for repeated token")
+    void resolveUsername_shouldCacheRemoteResult() {
+        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn("user@example.com");
+
+        assertThat(tokenValidationService.resolveUsername("token")).isEqualTo("user@example.com");
+        assertThat(tokenValidationService.resolveUsername("token")).isEqualTo("user@example.com");
+
+        verify(authServiceClient, times(1)).validateToken(any(TokenValidationRequest.class));
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should share one remote call between concurrent requests with same token")
+    void resolveUsername_shouldLoadOnce_WhenConcurrent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "user@example.com";
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> tokenValidationService.resolveUsername("token")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("user@example.com");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(authServiceClient, times(1)).validateToken(any(TokenValidationRequest.class));
+    }
+
+    @Test
+    @DisplayName("should not keep token past its exp claim")
+    void resolveUsername_shouldRevalidate_WhenTokenExpired() {
+        String expiredToken = jwtWithExp(Instant.now().minusSeconds(60).getEpochSecond());
+        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn("user@example.com");
+
+        tokenValidationService.resolveUsername(expiredToken);
+        tokenValidationService.resolveUsername(expiredToken);
+
+        verify(authServiceClient, times(2)).validateToken(any(TokenValidationRequest.class));
+    }
+
+    @Test
+    @DisplayName("should bypass cache when disabled")
+    void resolveUsername_shouldCallRemote_WhenCacheDisabled() {
+        properties.setEnabled(false);
+        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn("user@example.com");
+
+        tokenValidationService.resolveUsername("token");
+        tokenValidationService.resolveUsername("token");
+
+        verify(authServiceClient, times(2)).validateToken(any(TokenValidationRequest.class));
+    }
+
+    @Test
+    @DisplayName("should resolve username from locally verified token without remote call")
+    void resolveUsername_shouldVerifyLocally_WhenSignedWithTrustedKey() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        enableLocalVerification(NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build());
+
+        String token = signedJwt(keyPair, "user@example.com", Instant.now().plusSeconds(300));
+
+        assertThat(tokenValidationService.resolveUsername(token)).isEqualTo("user@example.com");
+        verifyNoInteractions(authServiceClient);
+    }
+
+    @Test
+    @DisplayName("should reject token signed with unknown key")
+    void resolveUsername_shouldThrowInvalidToken_WhenSignatureInvalid() throws Exception {
+        KeyPair trusted = generateKeyPair();
+        KeyPair attacker = generateKeyPair();
+        enableLocalVerification(NimbusJwtDecoder.withPublicKey((RSAPublicKey) trusted.getPublic()).build());
+
+        String token = signedJwt(attacker, "user@example.com", Instant.now().plusSeconds(300));
+
+        assertThatThrownBy(() -> tokenValidationService.resolveUsername(token))
+                .isInstanceOf(InvalidTokenException.class);
+        verifyNoInteractions(authServiceClient);
+    }
+
+    @Test
+    @DisplayName("should reject expired token")
+    void resolveUsername_shouldThrowInvalidToken_WhenExpired() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        enableLocalVerification(NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build());
+
+        String token = signedJwt(keyPair, "user@example.com", Instant.now().minusSeconds(300));
+
+        assertThatThrownBy(() -> tokenValidationService.resolveUsername(token))
+                .isInstanceOf(InvalidTokenException.class);
+        verify(authServiceClient, never()).validateToken(any(TokenValidationRequest.class));
+    }
+
+    @Test
+    @DisplayName("should fall back to auth service when keys are unavailable")
+    void resolveUsername_shouldFallbackToRemote_WhenDecoderUnavailable() {
+        JwtDecoder decoder = mock(JwtDecoder.class);
+        when(decoder.decode(anyString())).thenThrow(new JwtException("JWKS endpoint unreachable"));
+        enableLocalVerification(decoder);
+        when(authServiceClient.validateToken(any(TokenValidationRequest.class))).thenReturn("user@example.com");
+
+        assertThat(tokenValidationService.resolveUsername("token")).isEqualTo("user@example.com");
+        verify(authServiceClient, times(1)).validateToken(any(TokenValidationRequest.class));
+    }
+
+    private void enableLocalVerification(JwtDecoder decoder) {
+        verificationProperties.setEnabled(true);
+        when(jwtDecoderProvider.getIfAvailable()).thenReturn(decoder);
+        tokenValidationService = newService();
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String signedJwt(KeyPair keyPair, String subject, Instant expiresAt) {
+        RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey(keyPair.getPrivate())
+                .build();
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(subject)
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+    }
+
+    private static String jwtWithExp(long exp) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"sub\":\"user\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".signature";
+    }
+}
@@ -0,0 +1,126 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.exception.InsufficientFundsException;
+import az.kapital.msaccountservice.model.Currency;
+import az.kapital.msaccountservice.model.TransferRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a small set of accounts with transfers in both directions at once, the pattern
+ * that deadlocks when rows are locked in request order.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class TransferConcurrencyTest {
+
+    private static final long FIRST_USER_ID = 2_000_000L;
+    private static final int USERS = 8;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 250;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.0000");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+        registry.add("spring.jpa.show-sql", () -> false);
+        // A deadlock must fail the test, not be retried away.
+        registry.add("account.balance-update.lock.retry.enabled", () -> false);
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM account WHERE user_id >= ?", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM account_user WHERE id >= ?", FIRST_USER_ID);
+        for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + USERS; userId++) {
+            jdbcTemplate.update("INSERT INTO account_user (id, username) VALUES (?, ?)", userId, "transfer-" + userId);
+            for (Currency currency : Currency.values()) {
+                jdbcTemplate.update("INSERT INTO account (user_id, currency, balance) VALUES (?, ?, ?)",
+                        userId, currency.name(), OPENING_BALANCE);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should run opposing concurrent transfers without deadlocks and conserve the total")
+    void transfer_shouldNotDeadlock_UnderConcurrentOpposingTransfers() throws Exception {
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        long from = FIRST_USER_ID + random.nextInt(USERS);
+                        long to = FIRST_USER_ID + (from - FIRST_USER_ID + 1 + random.nextInt(USERS - 1)) % USERS;
+                        try {
+                            accountService.transfer(TransferRequest.builder()
+                                    .fromUserId(from).fromCurrency(Currency.USD)
+                                    .toUserId(to).toCurrency(Currency.USD)
+                                    .amount(BigDecimal.valueOf(1 + random.nextInt(100)))
+                                    .build());
+                            applied.incrementAndGet();
+                        } catch (InsufficientFundsException ex) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(applied.get() + rejected.get()).isEqualTo(THREADS * TRANSFERS_PER_THREAD);
+        assertThat(applied.get()).isPositive();
+        BigDecimal total = jdbcTemplate.queryForObject(
+                "SELECT SUM(balance) FROM account WHERE user_id >= ? AND currency = 'USD'",
+                BigDecimal.class, FIRST_USER_ID);
+        assertThat(total).isEqualByComparingTo(OPENING_BALANCE.multiply(BigDecimal.valueOf(USERS)));
+        Integer negative = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account WHERE user_id >= ? AND balance < 0", Integer.class, FIRST_USER_ID);
+        assertThat(negative).isZero();
+    }
+}
@@ -0,0 +1,105 @@
+package az.kapital.msaccountservice.service;
+
+import az.kapital.msaccountservice.config.UserIdCacheProperties;
+import az.kapital.msaccountservice.domain.entity.UserEntity;
+import az.kapital.msaccountservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdCacheProperties properties;
+    private UserIdResolver userIdResolver;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserIdCacheProperties();
+        userIdResolver = new UserIdResolver(userRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should look a username up once and serve repeats from the cache")
+    void resolve_shouldCacheHit() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice")));
+
+        assertThat(userIdResolver.resolve("alice")).contains(1L);
+        assertThat(userIdResolver.resolve("alice")).contains(1L);
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    @DisplayName("should not cache an unknown username so a later insert is found")
+    void resolve_shouldNotCacheMiss() {
+        when(userRepository.findByUsername("bob"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(user(2L, "bob")));
+
+        assertThat(userIdResolver.resolve("bob")).isEmpty();
+        assertThat(userIdResolver.resolve("bob")).contains(2L);
+
+        verify(userRepository, times(2)).findByUsername("bob");
+    }
+
+    @Test
+    @DisplayName("should reload a username after it is evicted")
+    void evict_shouldReloadMapping() {
+        when(userRepository.findByUsername("carol"))
+                .thenReturn(Optional.of(user(3L, "carol")))
+                .thenReturn(Optional.of(user(4L, "carol")));
+        userIdResolver.resolve("carol");
+
+        userIdResolver.evict("carol");
+
+        assertThat(userIdResolver.resolve("carol")).contains(4L);
+        verify(userRepository, times(2)).findByUsername("carol");
+    }
+
+    @Test
+    @DisplayName("should reload every username after evicting all")
+    void evictAll_shouldReloadMappings() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice")));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user(2L, "bob")));
+        userIdResolver.resolve("alice");
+        userIdResolver.resolve("bob");
+
+        userIdResolver.evictAll();
+        userIdResolver.resolve("alice");
+        userIdResolver.resolve("bob");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+        verify(userRepository, times(2)).findByUsername("bob");
+    }
+
+    @Test
+    @DisplayName("should query the repository every time when the cache is disabled")
+    void resolve_shouldBypassCache_WhenDisabled() {
+        properties.setEnabled(false);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice")));
+
+        userIdResolver.resolve("alice");
+        userIdResolver.resolve("alice");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    private static UserEntity user(Long id, String username) {
+        return new UserEntity(id, username, null);
+    }
+}